@@ -0,0 +1,59 @@
+package com.atlas.portfolio.benchmark;
+
+import com.atlas.portfolio.service.ExchangeRateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate lookups and conversions against warm in-process cross rates, the path every converted amount takes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeRateBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final BigDecimal amount = new BigDecimal("12345.67890000");
+    private final List<BigDecimal> amounts = Collections.nCopies(BATCH_SIZE, amount);
+    private final List<String> currencies = Collections.nCopies(BATCH_SIZE, "EUR");
+
+    private ExchangeRateService exchangeRateService;
+
+    @Setup
+    public void setUp() {
+        exchangeRateService = PortfolioSummaryBenchmark.exchangeRateService();
+        exchangeRateService.getCrossRates();
+    }
+
+    @Benchmark
+    public BigDecimal getRate() {
+        return exchangeRateService.getRate("EUR", "GBP");
+    }
+
+    @Benchmark
+    public BigDecimal convert() {
+        return exchangeRateService.convert(amount, "EUR", "JPY");
+    }
+
+    @Benchmark
+    public List<BigDecimal> convertAll() {
+        return exchangeRateService.convertAll(amounts, currencies, "JPY");
+    }
+}
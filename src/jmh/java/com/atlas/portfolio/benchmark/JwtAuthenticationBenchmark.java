@@ -0,0 +1,83 @@
+package com.atlas.portfolio.benchmark;
+
+import com.atlas.portfolio.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: the previous validate-then-extract flow that rebuilt the key
+ * and parser on every call, a single parse with a shared parser, and a cache hit on the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "CHANGE_THIS_SECRET_KEY_IN_PRODUCTION_MIN_32_CHARS";
+
+    private String token;
+    private JwtUtil singleParse;
+    private JwtUtil cached;
+
+    @Setup
+    public void setUp() {
+        token = Jwts.builder()
+                .subject("benchmark@atlas.com")
+                .claim("userId", 42L)
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(signingKey())
+                .compact();
+        singleParse = new JwtUtil(SECRET, 0);
+        cached = new JwtUtil(SECRET, 10_000);
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public Long validateThenExtract() {
+        if (legacyClaims(token).getExpiration().before(new Date())) {
+            return null;
+        }
+        return legacyClaims(token).get("userId", Long.class);
+    }
+
+    @Benchmark
+    public Long singleParse() {
+        return singleParse.verify(token).map(JwtUtil.VerifiedToken::userId).orElse(null);
+    }
+
+    @Benchmark
+    public Long cachedVerify() {
+        return cached.verify(token).map(JwtUtil.VerifiedToken::userId).orElse(null);
+    }
+
+    private Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(signingKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private SecretKey signingKey() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+}
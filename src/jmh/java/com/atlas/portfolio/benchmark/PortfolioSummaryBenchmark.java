@@ -0,0 +1,136 @@
+package com.atlas.portfolio.benchmark;
+
+import com.atlas.portfolio.dto.response.PortfolioSummaryResponse;
+import com.atlas.portfolio.entity.Asset;
+import com.atlas.portfolio.entity.Portfolio;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.repository.AssetRepository;
+import com.atlas.portfolio.repository.PortfolioRepository;
+import com.atlas.portfolio.service.ExchangeRateService;
+import com.atlas.portfolio.service.PortfolioAnalyticsService;
+import com.atlas.portfolio.service.PriceBook;
+import com.atlas.portfolio.service.external.ExchangeRateApiClient;
+import com.atlas.portfolio.service.external.InMemoryExchangeRateStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes the summary of a portfolio of {@code assetCount} assets from loaded entities, with the repositories
+ * stubbed out so only the in-process valuation, breakdown and reporting-currency conversion are measured. The
+ * repositories are plain proxies rather than Mockito mocks, whose per-call stack walking would dominate small
+ * portfolios.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortfolioSummaryBenchmark {
+
+    private static final Long PORTFOLIO_ID = 1L;
+    private static final Long USER_ID = 1L;
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY"};
+
+    @Param({"10", "1000", "100000"})
+    private int assetCount;
+
+    @Param({"USD", "EUR"})
+    private String reportingCurrency;
+
+    private PortfolioAnalyticsService portfolioAnalyticsService;
+
+    @Setup
+    public void setUp() {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setId(PORTFOLIO_ID);
+        portfolio.setName("Benchmark");
+        portfolio.setUserId(USER_ID);
+
+        List<Asset> assets = assets(portfolio);
+        portfolioAnalyticsService = new PortfolioAnalyticsService(
+                stub(PortfolioRepository.class, "findByIdAndUserId", Optional.of(portfolio)),
+                stub(AssetRepository.class, "findByPortfolioId", assets),
+                null,
+                new PriceBook(1_024, ""),
+                exchangeRateService(),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(portfolioAnalyticsService, "summarySource",
+                PortfolioAnalyticsService.SummarySource.ENTITIES);
+    }
+
+    @Benchmark
+    public PortfolioSummaryResponse portfolioSummary() {
+        return portfolioAnalyticsService.getPortfolioSummary(PORTFOLIO_ID, USER_ID, reportingCurrency);
+    }
+
+    private List<Asset> assets(Portfolio portfolio) {
+        Random random = new Random(42);
+        AssetType[] types = AssetType.values();
+        LocalDateTime now = LocalDateTime.now();
+        List<Asset> assets = new ArrayList<>(assetCount);
+        for (int i = 0; i < assetCount; i++) {
+            Asset asset = new Asset();
+            asset.setId((long) i);
+            asset.setPortfolio(portfolio);
+            asset.setSymbol("SYM" + i);
+            asset.setAssetType(types[random.nextInt(types.length)]);
+            asset.setCurrency(CURRENCIES[random.nextInt(CURRENCIES.length)]);
+            asset.setQuantity(BigDecimal.valueOf(random.nextLong(1, 100_000_000_000L), 8));
+            asset.setAveragePurchasePrice(BigDecimal.valueOf(random.nextLong(1, 50_000_000_000L), 8));
+            if (random.nextInt(20) != 0) {
+                asset.setCurrentPrice(BigDecimal.valueOf(random.nextLong(1, 50_000_000_000L), 8));
+                asset.setPriceUpdatedAt(now.minusSeconds(random.nextInt(3600)));
+            }
+            assets.add(asset);
+        }
+        return assets;
+    }
+
+    private static <T> T stub(Class<T> type, String methodName, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (!method.getName().equals(methodName)) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return result;
+        }));
+    }
+
+    static ExchangeRateService exchangeRateService() {
+        ExchangeRateApiClient apiClient = new ExchangeRateApiClient("http://localhost") {
+            @Override
+            public Map<String, BigDecimal> fetchAllRatesFromUSD() {
+                return Map.of(
+                        "USD", BigDecimal.ONE,
+                        "EUR", new BigDecimal("0.9214"),
+                        "GBP", new BigDecimal("0.7893"),
+                        "JPY", new BigDecimal("151.37"),
+                        "CHF", new BigDecimal("0.8812"));
+            }
+        };
+        return new ExchangeRateService(apiClient, new InMemoryExchangeRateStore(), new SimpleMeterRegistry(),
+                Duration.ofHours(6), Duration.ofMinutes(30));
+    }
+}
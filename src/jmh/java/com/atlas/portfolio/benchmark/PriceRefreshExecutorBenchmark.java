@@ -0,0 +1,93 @@
+package com.atlas.portfolio.benchmark;
+
+import com.atlas.portfolio.config.AsyncConfig;
+import com.atlas.portfolio.config.ConcurrencyLimitedExecutor;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refreshes {@code assetCount} simulated assets the way PriceRefreshService does: one task per asset on the
+ * price refresh executor, each waiting on a "finnhub" rate limiter and then blocking for {@code ioLatencyMillis}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class PriceRefreshExecutorBenchmark {
+
+    private static final int LIMIT_FOR_PERIOD = 200;
+    private static final Duration LIMIT_REFRESH_PERIOD = Duration.ofMillis(100);
+
+    @Param({"10", "1000", "10000"})
+    private int assetCount;
+
+    @Param({"FIXED", "VIRTUAL"})
+    private AsyncConfig.PriceRefreshExecutorMode mode;
+
+    @Param({"10"})
+    private long ioLatencyMillis;
+
+    private Executor executor;
+    private RateLimiter rateLimiter;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        RateLimiterRegistry registry = RateLimiterRegistry.of(RateLimiterConfig.custom()
+                .limitForPeriod(LIMIT_FOR_PERIOD)
+                .limitRefreshPeriod(LIMIT_REFRESH_PERIOD)
+                .timeoutDuration(Duration.ofMinutes(5))
+                .build());
+        rateLimiter = registry.rateLimiter("finnhub");
+        executor = new AsyncConfig().priceRefreshExecutor(mode, 0, registry, new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        } else if (executor instanceof ConcurrencyLimitedExecutor limitedExecutor) {
+            limitedExecutor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void refreshAssets() {
+        CompletableFuture<?>[] futures = new CompletableFuture[assetCount];
+        for (int i = 0; i < assetCount; i++) {
+            futures[i] = CompletableFuture.runAsync(this::fetchQuote, executor);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private void fetchQuote() {
+        RateLimiter.waitForPermission(rateLimiter);
+        try {
+            Thread.sleep(ioLatencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.atlas.portfolio.benchmark;
+
+import com.atlas.portfolio.config.AdaptiveConcurrencyLimiter;
+import com.atlas.portfolio.config.AsyncConfig;
+import com.atlas.portfolio.config.ConcurrencyLimitedExecutor;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.repository.AssetRepository;
+import com.atlas.portfolio.repository.PortfolioRepository;
+import com.atlas.portfolio.service.AssetPriceWriter;
+import com.atlas.portfolio.service.PriceBook;
+import com.atlas.portfolio.service.PriceRefreshService;
+import com.atlas.portfolio.service.StockPriceService;
+import com.atlas.portfolio.service.external.FinnhubApiClient;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Runs PriceRefreshService's global refresh over {@code symbolCount} held symbols through the real
+ * StockPriceService, with FinnhubApiClient replaced by a stub that blocks for {@code ioLatencyMillis}. The quote
+ * cache TTL is zero so every invocation fans out to the stub. Rate limiting is out of scope here; see
+ * PriceRefreshExecutorBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class PriceRefreshServiceBenchmark {
+
+    @Param({"100", "1000"})
+    private int symbolCount;
+
+    @Param({"FIXED", "VIRTUAL"})
+    private AsyncConfig.PriceRefreshExecutorMode mode;
+
+    @Param({"10"})
+    private long ioLatencyMillis;
+
+    private Executor executor;
+    private PriceRefreshService priceRefreshService;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        executor = new AsyncConfig().priceRefreshExecutor(
+                mode, 0, RateLimiterRegistry.ofDefaults(), new SimpleMeterRegistry());
+
+        AssetRepository assetRepository = mock(AssetRepository.class, withSettings().stubOnly());
+        when(assetRepository.findDistinctSymbolsByAssetType(AssetType.STOCK)).thenReturn(
+                IntStream.range(0, symbolCount).mapToObj(i -> "SYM" + i).toList());
+        when(assetRepository.findDistinctCurrenciesByAssetType(AssetType.CASH)).thenReturn(List.of("EUR", "GBP"));
+
+        StockPriceService stockPriceService = new StockPriceService(new StubFinnhubApiClient(ioLatencyMillis),
+                new PriceBook(1_024, ""), new SimpleMeterRegistry(), Duration.ofMinutes(1), Duration.ZERO, symbolCount);
+        priceRefreshService = new PriceRefreshService(
+                mock(PortfolioRepository.class, withSettings().stubOnly()),
+                assetRepository,
+                stockPriceService,
+                PortfolioSummaryBenchmark.exchangeRateService(),
+                mock(AssetPriceWriter.class, withSettings().stubOnly()),
+                executor);
+        ReflectionTestUtils.setField(priceRefreshService, "globalRefreshEnabled", true);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        } else if (executor instanceof ConcurrencyLimitedExecutor limitedExecutor) {
+            limitedExecutor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void refreshAllPrices() {
+        priceRefreshService.refreshAllPrices();
+    }
+
+    private static final class StubFinnhubApiClient extends FinnhubApiClient {
+
+        private final long latencyMillis;
+
+        private StubFinnhubApiClient(long latencyMillis) {
+            super("http://localhost", "benchmark", Duration.ofSeconds(5), false, Duration.ZERO,
+                    new AdaptiveConcurrencyLimiter(10, 1, 30, Duration.ofSeconds(1), 0.7, Duration.ofSeconds(10)),
+                    RateLimiterRegistry.ofDefaults(), RetryRegistry.ofDefaults(), CircuitBreakerRegistry.ofDefaults(),
+                    new SimpleMeterRegistry());
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public BigDecimal fetchQuote(String symbol) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new BigDecimal("101.25");
+        }
+    }
+}
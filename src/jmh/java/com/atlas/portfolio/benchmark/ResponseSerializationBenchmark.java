@@ -0,0 +1,100 @@
+package com.atlas.portfolio.benchmark;
+
+import com.atlas.portfolio.dto.response.AssetResponse;
+import com.atlas.portfolio.dto.response.PortfolioResponse;
+import com.atlas.portfolio.entity.Asset;
+import com.atlas.portfolio.entity.Portfolio;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a portfolio of {@code assetCount} assets to its response DTOs and serializes them with an ObjectMapper built
+ * the way Spring Boot builds the MVC one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    private int assetCount;
+
+    private Portfolio portfolio;
+    private PortfolioResponse portfolioResponse;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        portfolio = new Portfolio();
+        portfolio.setId(1L);
+        portfolio.setName("Benchmark");
+        portfolio.setDescription("Serialization benchmark");
+        portfolio.setUserId(1L);
+        portfolio.setCreatedAt(now);
+        portfolio.setUpdatedAt(now);
+        List<Asset> assets = new ArrayList<>(assetCount);
+        for (int i = 0; i < assetCount; i++) {
+            Asset asset = new Asset();
+            asset.setId((long) i);
+            asset.setPortfolio(portfolio);
+            asset.setSymbol("SYM" + i);
+            asset.setAssetType(AssetType.STOCK);
+            asset.setQuantity(new BigDecimal("12.50000000"));
+            asset.setAveragePurchasePrice(new BigDecimal("187.12340000"));
+            asset.setCurrentPrice(new BigDecimal("190.50000000"));
+            asset.setCurrency("USD");
+            asset.setPriceUpdatedAt(now);
+            asset.setCreatedAt(now);
+            asset.setUpdatedAt(now);
+            assets.add(asset);
+        }
+        portfolio.setAssets(assets);
+        portfolioResponse = new PortfolioResponse(portfolio);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public PortfolioResponse mapPortfolio() {
+        return new PortfolioResponse(portfolio);
+    }
+
+    @Benchmark
+    public List<AssetResponse> mapAssets() {
+        return portfolio.getAssets().stream()
+                .map(AssetResponse::new)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializePortfolio() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(portfolioResponse);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePortfolio() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new PortfolioResponse(portfolio));
+    }
+}
@@ -0,0 +1,84 @@
+package com.atlas.portfolio.benchmark;
+
+import com.atlas.portfolio.service.ValuationKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Values {@code assetCount} assets of scale-8 quantities and prices spread over a handful of (type, currency)
+ * groups: the previous per-group BigDecimal stream reductions and the fixed-point kernel. Run with
+ * {@code -Djmh.args="ValuationKernel -prof gc"} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValuationKernelBenchmark {
+
+    private static final int GROUPS = 6;
+
+    @Param({"100", "10000"})
+    private int assetCount;
+
+    private List<Row> rows;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        rows = IntStream.range(0, assetCount)
+                .mapToObj(i -> new Row(
+                        random.nextInt(GROUPS),
+                        BigDecimal.valueOf(random.nextLong(1, 100_000_000_000L), 8),
+                        random.nextInt(20) == 0 ? null : BigDecimal.valueOf(random.nextLong(1, 50_000_000_000L), 8),
+                        BigDecimal.valueOf(random.nextLong(1, 50_000_000_000L), 8)))
+                .toList();
+    }
+
+    @Benchmark
+    public Map<Integer, BigDecimal[]> bigDecimalStreams() {
+        return rows.stream()
+                .collect(Collectors.groupingBy(Row::group))
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, group -> new BigDecimal[]{
+                        group.getValue().stream()
+                                .map(row -> row.price() != null ? row.price().multiply(row.quantity()) : null)
+                                .filter(Objects::nonNull)
+                                .reduce(BigDecimal.ZERO, BigDecimal::add),
+                        group.getValue().stream()
+                                .map(row -> row.averagePrice().multiply(row.quantity()))
+                                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                }));
+    }
+
+    @Benchmark
+    public ValuationKernel.GroupTotals[] fixedPointKernel() {
+        ValuationKernel kernel = new ValuationKernel(rows.size());
+        for (Row row : rows) {
+            kernel.add(row.group(), row.quantity(), row.price(), row.averagePrice());
+        }
+        return kernel.accumulate();
+    }
+
+    private record Row(int group, BigDecimal quantity, BigDecimal price, BigDecimal averagePrice) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.atlas.portfolio.config;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limit for calls to a remote service. Every call that completes below the latency threshold grows
+ * the limit by {@code 1 / limit}, so a fully used limit grows by about one per round trip. A call that is throttled,
+ * fails on the server side or exceeds the threshold multiplies the limit by the backoff ratio, at most once per
+ * round trip so a burst of failures from the same window only counts once.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseAt = System.nanoTime();
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold,
+                                      double backoffRatio, Duration maxWait) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    public Permit acquire() {
+        lock.lock();
+        try {
+            long remaining = maxWaitNanos;
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    throw new LimitExceededException(
+                            "No permit within " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms");
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            inFlight++;
+            return new Permit(System.nanoTime());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LimitExceededException("Interrupted while waiting for a permit");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<Permit> tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                return Optional.empty();
+            }
+            inFlight++;
+            return Optional.of(new Permit(System.nanoTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Permit permit, Outcome outcome) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (outcome == Outcome.SUCCESS) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            } else if (outcome == Outcome.DROPPED && permit.acquiredAt - lastDecreaseAt >= 0) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseAt = System.nanoTime();
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        DROPPED,
+        IGNORED
+    }
+
+    public final class Permit {
+
+        private final long acquiredAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long acquiredAt) {
+            this.acquiredAt = acquiredAt;
+        }
+
+        public void onSuccess(long latencyNanos) {
+            release(latencyNanos > latencyThresholdNanos ? Outcome.DROPPED : Outcome.SUCCESS);
+        }
+
+        public void onDropped() {
+            release(Outcome.DROPPED);
+        }
+
+        public void onIgnored() {
+            release(Outcome.IGNORED);
+        }
+
+        private void release(Outcome outcome) {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.release(this, outcome);
+            }
+        }
+    }
+
+    public static class LimitExceededException extends RuntimeException {
+
+        public LimitExceededException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,24 +1,78 @@
 package com.atlas.portfolio.config;
 
-import org.springframework.cache.annotation.EnableCaching;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.time.Duration;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
 @Configuration
 @EnableAsync
 @EnableScheduling
-@EnableCaching
+@Slf4j
 public class AsyncConfig {
 
     private static final int PRICE_REFRESH_THREAD_POOL_SIZE = 10;
+    private static final String FINNHUB_RATE_LIMITER = "finnhub";
+    private static final String PRICE_REFRESH_EXECUTOR = "priceRefreshExecutor";
+
+    public enum PriceRefreshExecutorMode {
+        FIXED,
+        VIRTUAL
+    }
 
     @Bean(name = "priceRefreshExecutor", destroyMethod = "shutdown")
-    public Executor priceRefreshExecutor() {
-        return Executors.newFixedThreadPool(PRICE_REFRESH_THREAD_POOL_SIZE);
+    public Executor priceRefreshExecutor(
+            @Value("${price-refresh.executor.mode:fixed}") PriceRefreshExecutorMode mode,
+            @Value("${price-refresh.executor.max-concurrency:0}") int maxConcurrency,
+            RateLimiterRegistry rateLimiterRegistry,
+            MeterRegistry meterRegistry) {
+        if (mode == PriceRefreshExecutorMode.FIXED) {
+            return ExecutorServiceMetrics.monitor(meterRegistry,
+                    Executors.newFixedThreadPool(PRICE_REFRESH_THREAD_POOL_SIZE), PRICE_REFRESH_EXECUTOR);
+        }
+
+        int concurrency = maxConcurrency > 0
+                ? maxConcurrency
+                : rateLimiterRegistry.rateLimiter(FINNHUB_RATE_LIMITER).getRateLimiterConfig().getLimitForPeriod();
+        log.info("Using virtual-thread price refresh executor limited to {} concurrent tasks", concurrency);
+        ConcurrencyLimitedExecutor executor =
+                new ConcurrencyLimitedExecutor(Executors.newVirtualThreadPerTaskExecutor(), concurrency);
+        Gauge.builder("executor.active", executor, ConcurrencyLimitedExecutor::getActiveCount)
+                .baseUnit("threads")
+                .tag("name", PRICE_REFRESH_EXECUTOR)
+                .register(meterRegistry);
+        Gauge.builder("executor.queued", executor, ConcurrencyLimitedExecutor::getQueueLength)
+                .baseUnit("tasks")
+                .tag("name", PRICE_REFRESH_EXECUTOR)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter finnhubConcurrencyLimiter(
+            @Value("${finnhub.concurrency.initial-limit:10}") int initialLimit,
+            @Value("${finnhub.concurrency.min-limit:1}") int minLimit,
+            @Value("${finnhub.concurrency.max-limit:30}") int maxLimit,
+            @Value("${finnhub.concurrency.latency-threshold:PT1S}") Duration latencyThreshold,
+            @Value("${finnhub.concurrency.backoff-ratio:0.7}") double backoffRatio,
+            @Value("${finnhub.concurrency.max-wait:PT10S}") Duration maxWait,
+            MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio, maxWait);
+        Gauge.builder("finnhub.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("finnhub.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        return limiter;
     }
 }
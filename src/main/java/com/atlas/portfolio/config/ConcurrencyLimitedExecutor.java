@@ -0,0 +1,42 @@
+package com.atlas.portfolio.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+public class ConcurrencyLimitedExecutor implements Executor {
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    public ConcurrencyLimitedExecutor(ExecutorService delegate, int maxConcurrency) {
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        delegate.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+    }
+}
@@ -0,0 +1,60 @@
+package com.atlas.portfolio.config;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.spring6.ratelimiter.configure.RateLimiterAspectExt;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.reactivestreams.Publisher;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handles blocking {@code @RateLimiter} methods the same way the default aspect does, but records how long each call
+ * waited for its permission as {@code <name>.ratelimiter.wait}. Asynchronous and reactive return types are left to the
+ * default handling.
+ */
+@Component
+public class TimedRateLimiterAspectExt implements RateLimiterAspectExt {
+
+    private static final String WAIT_METRIC_SUFFIX = ".ratelimiter.wait";
+
+    private final MeterRegistry meterRegistry;
+
+    public TimedRateLimiterAspectExt(MeterRegistry meterRegistry, RateLimiterRegistry rateLimiterRegistry) {
+        this.meterRegistry = meterRegistry;
+        rateLimiterRegistry.getAllRateLimiters().forEach(this::waitTimer);
+        rateLimiterRegistry.getEventPublisher().onEntryAdded(event -> waitTimer(event.getAddedEntry()));
+    }
+
+    @Override
+    public boolean canHandleReturnType(Class returnType) {
+        return !CompletionStage.class.isAssignableFrom(returnType) && !Publisher.class.isAssignableFrom(returnType);
+    }
+
+    @Override
+    public Object handle(ProceedingJoinPoint joinPoint, RateLimiter rateLimiter, String methodName) throws Throwable {
+        long startedAt = System.nanoTime();
+        try {
+            RateLimiter.waitForPermission(rateLimiter);
+        } finally {
+            waitTimer(rateLimiter).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            Object result = joinPoint.proceed();
+            rateLimiter.onResult(result);
+            return result;
+        } catch (Exception e) {
+            rateLimiter.onError(e);
+            throw e;
+        }
+    }
+
+    private Timer waitTimer(RateLimiter rateLimiter) {
+        return meterRegistry.timer(rateLimiter.getName() + WAIT_METRIC_SUFFIX);
+    }
+}
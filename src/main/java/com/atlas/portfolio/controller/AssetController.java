@@ -1,16 +1,30 @@
 package com.atlas.portfolio.controller;
 
+import com.atlas.portfolio.dto.request.BatchAssetRequest;
 import com.atlas.portfolio.dto.request.CreateAssetRequest;
 import com.atlas.portfolio.dto.request.UpdateAssetRequest;
+import com.atlas.portfolio.dto.response.AssetImportResponse;
+import com.atlas.portfolio.dto.response.AssetPageResponse;
 import com.atlas.portfolio.dto.response.AssetResponse;
+import com.atlas.portfolio.dto.response.BatchAssetResponse;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.service.AssetImportService;
 import com.atlas.portfolio.service.AssetService;
 import com.atlas.portfolio.service.SecurityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -18,8 +32,13 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AssetController {
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final AssetService assetService;
+    private final AssetImportService assetImportService;
     private final SecurityService securityService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<AssetResponse> createAsset(
@@ -30,6 +49,26 @@ public class AssetController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<AssetImportResponse> importAssetsCsv(
+            @PathVariable Long portfolioId,
+            InputStream body) throws IOException {
+        Long userId = securityService.getCurrentUserId();
+        AssetImportResponse response = assetImportService.importAssets(
+                portfolioId, body, AssetImportService.ImportFormat.CSV, userId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/import", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<AssetImportResponse> importAssetsNdjson(
+            @PathVariable Long portfolioId,
+            InputStream body) throws IOException {
+        Long userId = securityService.getCurrentUserId();
+        AssetImportResponse response = assetImportService.importAssets(
+                portfolioId, body, AssetImportService.ImportFormat.NDJSON, userId);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
     public ResponseEntity<List<AssetResponse>> getAllAssets(@PathVariable Long portfolioId) {
         Long userId = securityService.getCurrentUserId();
@@ -37,6 +76,32 @@ public class AssetController {
         return ResponseEntity.ok(assets);
     }
 
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllAssets(@PathVariable Long portfolioId) {
+        Long userId = securityService.getCurrentUserId();
+        assetService.verifyPortfolioAccess(portfolioId, userId);
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            assetService.streamAllAssets(portfolioId, asset -> writeLine(out, asset));
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<AssetPageResponse> getAssetPage(
+            @PathVariable Long portfolioId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) AssetType assetType) {
+        Long userId = securityService.getCurrentUserId();
+        AssetPageResponse page = assetService.getAssetPage(portfolioId, afterId, limit, assetType, userId);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{assetId}")
     public ResponseEntity<AssetResponse> getAssetById(
             @PathVariable Long portfolioId,
@@ -56,6 +121,15 @@ public class AssetController {
         return ResponseEntity.ok(asset);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchAssetResponse> applyBatch(
+            @PathVariable Long portfolioId,
+            @Valid @RequestBody BatchAssetRequest request) {
+        Long userId = securityService.getCurrentUserId();
+        BatchAssetResponse response = assetService.applyBatch(portfolioId, request, userId);
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{assetId}")
     public ResponseEntity<Void> deleteAsset(
             @PathVariable Long portfolioId,
@@ -64,4 +138,13 @@ public class AssetController {
         assetService.deleteAsset(portfolioId, assetId, userId);
         return ResponseEntity.noContent().build();
     }
+
+    private void writeLine(OutputStream out, AssetResponse asset) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(asset));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -2,18 +2,28 @@ package com.atlas.portfolio.controller;
 
 import com.atlas.portfolio.dto.request.CreatePortfolioRequest;
 import com.atlas.portfolio.dto.request.UpdatePortfolioRequest;
+import com.atlas.portfolio.dto.response.PortfolioHeaderResponse;
+import com.atlas.portfolio.dto.response.PortfolioPerformanceResponse;
 import com.atlas.portfolio.dto.response.PortfolioResponse;
 import com.atlas.portfolio.dto.response.PortfolioSummaryResponse;
+import com.atlas.portfolio.dto.response.PriceRefreshJobResponse;
 import com.atlas.portfolio.service.PortfolioAnalyticsService;
 import com.atlas.portfolio.service.PortfolioService;
+import com.atlas.portfolio.service.PortfolioSnapshotService;
+import com.atlas.portfolio.service.PortfolioStreamService;
 import com.atlas.portfolio.service.PriceRefreshService;
 import com.atlas.portfolio.service.SecurityService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -23,6 +33,8 @@ public class PortfolioController {
 
     private final PortfolioService portfolioService;
     private final PortfolioAnalyticsService portfolioAnalyticsService;
+    private final PortfolioSnapshotService portfolioSnapshotService;
+    private final PortfolioStreamService portfolioStreamService;
     private final PriceRefreshService priceRefreshService;
     private final SecurityService securityService;
 
@@ -41,6 +53,13 @@ public class PortfolioController {
         return ResponseEntity.ok(portfolios);
     }
 
+    @GetMapping("/headers")
+    public ResponseEntity<List<PortfolioHeaderResponse>> getPortfolioHeaders() {
+        Long userId = securityService.getCurrentUserId();
+        List<PortfolioHeaderResponse> headers = portfolioService.getPortfolioHeaders(userId);
+        return ResponseEntity.ok(headers);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PortfolioResponse> getPortfolioById(@PathVariable Long id) {
         Long userId = securityService.getCurrentUserId();
@@ -49,12 +68,33 @@ public class PortfolioController {
     }
 
     @GetMapping("/{id}/summary")
-    public ResponseEntity<PortfolioSummaryResponse> getPortfolioSummary(@PathVariable Long id) {
+    public ResponseEntity<PortfolioSummaryResponse> getPortfolioSummary(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "USD") String currency) {
         Long userId = securityService.getCurrentUserId();
-        PortfolioSummaryResponse summary = portfolioAnalyticsService.getPortfolioSummary(id, userId);
+        PortfolioSummaryResponse summary = portfolioAnalyticsService.getPortfolioSummary(id, userId, currency);
         return ResponseEntity.ok(summary);
     }
 
+    @GetMapping(value = "/{id}/summary/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPortfolioSummary(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "USD") String currency,
+            @RequestParam(defaultValue = "1000") long intervalMs) {
+        Long userId = securityService.getCurrentUserId();
+        return portfolioStreamService.subscribe(id, userId, currency, intervalMs);
+    }
+
+    @GetMapping("/{id}/performance")
+    public ResponseEntity<PortfolioPerformanceResponse> getPortfolioPerformance(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Long userId = securityService.getCurrentUserId();
+        PortfolioPerformanceResponse performance = portfolioSnapshotService.getPerformance(id, userId, from, to);
+        return ResponseEntity.ok(performance);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<PortfolioResponse> updatePortfolio(
             @PathVariable Long id,
@@ -72,9 +112,20 @@ public class PortfolioController {
     }
 
     @PostMapping("/{id}/refresh-prices")
-    public ResponseEntity<Void> refreshPortfolioPrices(@PathVariable Long id) {
+    public ResponseEntity<PriceRefreshJobResponse> refreshPortfolioPrices(@PathVariable Long id) {
+        Long userId = securityService.getCurrentUserId();
+        PriceRefreshJobResponse job = priceRefreshService.startPortfolioRefresh(id, userId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/portfolios/" + id + "/refresh-prices/" + job.getJobId()))
+                .body(job);
+    }
+
+    @GetMapping("/{id}/refresh-prices/{jobId}")
+    public ResponseEntity<PriceRefreshJobResponse> getPriceRefreshJob(
+            @PathVariable Long id,
+            @PathVariable String jobId) {
         Long userId = securityService.getCurrentUserId();
-        priceRefreshService.refreshPortfolioPrices(id, userId);
-        return ResponseEntity.ok().build();
+        PriceRefreshJobResponse job = priceRefreshService.getRefreshJob(id, jobId, userId);
+        return ResponseEntity.ok(job);
     }
 }
@@ -0,0 +1,33 @@
+package com.atlas.portfolio.controller;
+
+import com.atlas.portfolio.dto.response.PriceBarsResponse;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.service.PriceHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/prices")
+@RequiredArgsConstructor
+public class PriceHistoryController {
+
+    private final PriceHistoryService priceHistoryService;
+
+    @GetMapping("/{symbol}/bars")
+    public ResponseEntity<PriceBarsResponse> getBars(
+            @PathVariable String symbol,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String resolution,
+            @RequestParam(defaultValue = "500") int maxPoints,
+            @RequestParam(defaultValue = "STOCK") AssetType assetType) {
+        PriceBarsResponse response = priceHistoryService.getBars(
+                assetType, symbol.toUpperCase(), from, to,
+                resolution != null ? PriceHistoryService.Resolution.fromLabel(resolution) : null, maxPoints);
+        return ResponseEntity.ok(response);
+    }
+}
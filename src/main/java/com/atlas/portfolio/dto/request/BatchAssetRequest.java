@@ -0,0 +1,47 @@
+package com.atlas.portfolio.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAssetRequest {
+
+    @Valid
+    @NotNull(message = "Updates must not be null")
+    @Size(max = 1000, message = "At most 1000 updates are allowed per batch")
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private List<@NotNull AssetUpdate> updates = new ArrayList<>();
+
+    @NotNull(message = "Deletes must not be null")
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    @Size(max = 1000, message = "At most 1000 deletes are allowed per batch")
+    private List<@NotNull Long> deletes = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AssetUpdate {
+
+        @NotNull(message = "Asset id is required")
+        private Long assetId;
+
+        @DecimalMin(value = "0.0", inclusive = false, message = "Quantity must be greater than 0")
+        private BigDecimal quantity;
+
+        @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
+        private BigDecimal averagePurchasePrice;
+    }
+}
@@ -0,0 +1,16 @@
+package com.atlas.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetPageResponse {
+
+    private List<AssetResponse> items;
+    private Long nextCursor;
+}
@@ -0,0 +1,36 @@
+package com.atlas.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAssetResponse {
+
+    private List<ItemResult> results;
+
+    public enum Action {
+        UPDATE,
+        DELETE
+    }
+
+    public enum Status {
+        UPDATED,
+        DELETED,
+        NOT_FOUND
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private Long assetId;
+        private Action action;
+        private Status status;
+        private AssetResponse asset;
+    }
+}
@@ -0,0 +1,21 @@
+package com.atlas.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioHeaderResponse {
+
+    private Long id;
+    private String name;
+    private String description;
+    private Long userId;
+    private Long assetCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,31 @@
+package com.atlas.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioPerformanceResponse {
+    private Long portfolioId;
+    private String currency;
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal timeWeightedReturnPercent;
+    private List<PerformancePoint> points;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PerformancePoint {
+        private LocalDate date;
+        private BigDecimal totalValue;
+        private BigDecimal totalInvested;
+        private BigDecimal timeWeightedReturnPercent;
+    }
+}
@@ -14,6 +14,7 @@ import java.util.List;
 public class PortfolioSummaryResponse {
     private Long portfolioId;
     private String portfolioName;
+    private String reportingCurrency;
     private BigDecimal totalValue;
     private BigDecimal totalInvested;
     private BigDecimal totalProfitLoss;
@@ -0,0 +1,31 @@
+package com.atlas.portfolio.dto.response;
+
+import com.atlas.portfolio.entity.enums.AssetType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceBarsResponse {
+    private AssetType assetType;
+    private String symbol;
+    private String resolution;
+    private List<PriceBar> bars;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBar {
+        private LocalDateTime time;
+        private BigDecimal open;
+        private BigDecimal high;
+        private BigDecimal low;
+        private BigDecimal close;
+    }
+}
@@ -0,0 +1,35 @@
+package com.atlas.portfolio.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceRefreshJobResponse {
+    private String jobId;
+    private Long portfolioId;
+    private String status;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<PriceResult> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceResult {
+        private String assetType;
+        private String key;
+        private String status;
+        private BigDecimal price;
+        private String error;
+    }
+}
@@ -0,0 +1,7 @@
+package com.atlas.portfolio.exception;
+
+public class UnsupportedCurrencyException extends RuntimeException {
+    public UnsupportedCurrencyException(String currency) {
+        super("Currency not supported: " + currency);
+    }
+}
@@ -1,12 +1,22 @@
 package com.atlas.portfolio.repository;
 
+import com.atlas.portfolio.dto.response.AssetResponse;
 import com.atlas.portfolio.entity.Asset;
 import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.repository.projection.AssetTypeTotals;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AssetRepository extends JpaRepository<Asset, Long> {
@@ -17,7 +27,50 @@ public interface AssetRepository extends JpaRepository<Asset, Long> {
 
     List<Asset> findByPortfolioIdAndAssetType(Long portfolioId, AssetType assetType);
 
+    List<Asset> findAllByIdInAndPortfolioId(Collection<Long> ids, Long portfolioId);
+
+    List<Asset> findByPortfolioIdAndIdGreaterThanOrderByIdAsc(Long portfolioId, Long afterId, Limit limit);
+
+    List<Asset> findByPortfolioIdAndAssetTypeAndIdGreaterThanOrderByIdAsc(
+            Long portfolioId, AssetType assetType, Long afterId, Limit limit);
+
+    @Query("""
+            SELECT new com.atlas.portfolio.dto.response.AssetResponse(
+                a.id, a.symbol, a.assetType, a.quantity, a.averagePurchasePrice, a.currentPrice,
+                a.currency, a.priceUpdatedAt, a.createdAt, a.updatedAt)
+            FROM Asset a
+            WHERE a.portfolio.id = :portfolioId
+            ORDER BY a.id""")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<AssetResponse> streamByPortfolioId(@Param("portfolioId") Long portfolioId);
+
     Optional<Asset> findByPortfolioIdAndSymbol(Long portfolioId, String symbol);
 
     boolean existsByIdAndPortfolioId(Long id, Long portfolioId);
+
+    @Query("SELECT DISTINCT a.symbol FROM Asset a WHERE a.assetType = :assetType")
+    List<String> findDistinctSymbolsByAssetType(@Param("assetType") AssetType assetType);
+
+    @Query("SELECT DISTINCT a.currency FROM Asset a WHERE a.assetType = :assetType")
+    List<String> findDistinctCurrenciesByAssetType(@Param("assetType") AssetType assetType);
+
+    @Query("SELECT DISTINCT a.symbol FROM Asset a WHERE a.portfolio.id = :portfolioId AND a.assetType = :assetType")
+    List<String> findDistinctSymbolsByPortfolioIdAndAssetType(@Param("portfolioId") Long portfolioId,
+                                                              @Param("assetType") AssetType assetType);
+
+    @Query("SELECT DISTINCT a.currency FROM Asset a WHERE a.portfolio.id = :portfolioId AND a.assetType = :assetType")
+    List<String> findDistinctCurrenciesByPortfolioIdAndAssetType(@Param("portfolioId") Long portfolioId,
+                                                                 @Param("assetType") AssetType assetType);
+
+    @Query("""
+            SELECT new com.atlas.portfolio.repository.projection.AssetTypeTotals(
+                a.assetType, a.currency, SUM(a.currentPrice * a.quantity), SUM(a.averagePurchasePrice * a.quantity),
+                COUNT(a), COUNT(a.currentPrice), MAX(a.priceUpdatedAt))
+            FROM Asset a
+            WHERE a.portfolio.id = :portfolioId
+            GROUP BY a.assetType, a.currency""")
+    List<AssetTypeTotals> findTotalsByPortfolioId(@Param("portfolioId") Long portfolioId);
 }
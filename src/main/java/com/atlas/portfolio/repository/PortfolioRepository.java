@@ -1,7 +1,11 @@
 package com.atlas.portfolio.repository;
 
+import com.atlas.portfolio.dto.response.PortfolioHeaderResponse;
 import com.atlas.portfolio.entity.Portfolio;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +16,19 @@ public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
 
     List<Portfolio> findByUserId(Long userId);
 
+    @EntityGraph(attributePaths = "assets")
+    @Query("SELECT p FROM Portfolio p WHERE p.userId = :userId ORDER BY p.id")
+    List<Portfolio> findWithAssetsByUserId(@Param("userId") Long userId);
+
+    @Query("""
+            SELECT new com.atlas.portfolio.dto.response.PortfolioHeaderResponse(
+                p.id, p.name, p.description, p.userId, COUNT(a), p.createdAt, p.updatedAt)
+            FROM Portfolio p LEFT JOIN p.assets a
+            WHERE p.userId = :userId
+            GROUP BY p.id, p.name, p.description, p.userId, p.createdAt, p.updatedAt
+            ORDER BY p.id""")
+    List<PortfolioHeaderResponse> findHeadersByUserId(@Param("userId") Long userId);
+
     Optional<Portfolio> findByIdAndUserId(Long id, Long userId);
 
     boolean existsByIdAndUserId(Long id, Long userId);
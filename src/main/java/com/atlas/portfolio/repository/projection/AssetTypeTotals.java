@@ -0,0 +1,16 @@
+package com.atlas.portfolio.repository.projection;
+
+import com.atlas.portfolio.entity.enums.AssetType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record AssetTypeTotals(
+        AssetType assetType,
+        String currency,
+        BigDecimal totalValue,
+        BigDecimal totalInvested,
+        long assetCount,
+        long pricedCount,
+        LocalDateTime lastPriceUpdate) {
+}
@@ -0,0 +1,199 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.dto.request.CreateAssetRequest;
+import com.atlas.portfolio.dto.response.AssetImportResponse;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.exception.ResourceNotFoundException;
+import com.atlas.portfolio.repository.PortfolioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AssetImportService {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int CSV_COLUMNS = 5;
+
+    private static final String INSERT_ASSETS_SQL = """
+            INSERT INTO assets (portfolio_id, symbol, asset_type, quantity, average_purchase_price, currency, created_at)
+            SELECT ?, u.symbol, u.asset_type, u.quantity, u.average_purchase_price, u.currency, ?
+            FROM unnest(?::varchar[], ?::varchar[], ?::numeric(20,8)[], ?::numeric(20,8)[], ?::varchar[])
+                AS u(symbol, asset_type, quantity, average_purchase_price, currency)""";
+
+    private final PortfolioRepository portfolioRepository;
+    private final PortfolioAggregateService portfolioAggregateService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    public enum ImportFormat {
+        CSV,
+        NDJSON
+    }
+
+    public AssetImportResponse importAssets(Long portfolioId, InputStream input, ImportFormat format, Long userId)
+            throws IOException {
+        if (!portfolioRepository.existsByIdAndUserId(portfolioId, userId)) {
+            throw new ResourceNotFoundException("Portfolio not found with id: " + portfolioId);
+        }
+
+        ImportResult result = new ImportResult();
+        List<ImportRow> batch = new ArrayList<>(BATCH_SIZE);
+        long startedAt = System.nanoTime();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (format == ImportFormat.CSV && result.totalRows == 0 && isCsvHeader(line))) {
+                    continue;
+                }
+
+                result.totalRows++;
+                try {
+                    CreateAssetRequest request = format == ImportFormat.CSV ? parseCsv(line) : parseJson(line);
+                    String violations = validate(request);
+                    if (violations != null) {
+                        result.reject(lineNumber, violations);
+                        continue;
+                    }
+                    batch.add(new ImportRow(lineNumber, request));
+                } catch (IllegalArgumentException | IOException e) {
+                    result.reject(lineNumber, "Malformed row: " + e.getMessage());
+                    continue;
+                }
+
+                if (batch.size() == BATCH_SIZE) {
+                    insertBatch(portfolioId, batch, result);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(portfolioId, batch, result);
+        }
+
+        log.info("Imported {} of {} asset rows into portfolio {} in {} ms",
+                result.importedRows, result.totalRows, portfolioId, (System.nanoTime() - startedAt) / 1_000_000);
+        return new AssetImportResponse(result.totalRows, result.importedRows, result.failedRows, result.errors);
+    }
+
+    private boolean isCsvHeader(String line) {
+        return line.trim().toLowerCase().startsWith("symbol");
+    }
+
+    private CreateAssetRequest parseCsv(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != CSV_COLUMNS) {
+            throw new IllegalArgumentException("expected " + CSV_COLUMNS + " columns but found " + columns.length);
+        }
+
+        return new CreateAssetRequest(
+                emptyToNull(columns[0]),
+                columns[1].isBlank() ? null : AssetType.valueOf(columns[1].trim().toUpperCase()),
+                columns[2].isBlank() ? null : new BigDecimal(columns[2].trim()),
+                columns[3].isBlank() ? null : new BigDecimal(columns[3].trim()),
+                emptyToNull(columns[4]));
+    }
+
+    private CreateAssetRequest parseJson(String line) throws IOException {
+        return objectMapper.readValue(line, CreateAssetRequest.class);
+    }
+
+    private String emptyToNull(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private String validate(CreateAssetRequest request) {
+        Set<ConstraintViolation<CreateAssetRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    private void insertBatch(Long portfolioId, List<ImportRow> batch, ImportResult result) {
+        int size = batch.size();
+        String[] symbols = new String[size];
+        String[] assetTypes = new String[size];
+        BigDecimal[] quantities = new BigDecimal[size];
+        BigDecimal[] averagePurchasePrices = new BigDecimal[size];
+        String[] currencies = new String[size];
+        for (int i = 0; i < size; i++) {
+            CreateAssetRequest request = batch.get(i).request();
+            symbols[i] = request.getSymbol().toUpperCase();
+            assetTypes[i] = request.getAssetType().name();
+            quantities[i] = request.getQuantity();
+            averagePurchasePrices[i] = request.getAveragePurchasePrice();
+            currencies[i] = request.getCurrency().toUpperCase();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(INSERT_ASSETS_SQL, ps -> {
+                    Connection connection = ps.getConnection();
+                    ps.setLong(1, portfolioId);
+                    ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                    ps.setArray(3, connection.createArrayOf("varchar", symbols));
+                    ps.setArray(4, connection.createArrayOf("varchar", assetTypes));
+                    ps.setArray(5, connection.createArrayOf("numeric", quantities));
+                    ps.setArray(6, connection.createArrayOf("numeric", averagePurchasePrices));
+                    ps.setArray(7, connection.createArrayOf("varchar", currencies));
+                });
+                portfolioAggregateService.assetsImported(portfolioId, assetTypes, currencies, quantities,
+                        averagePurchasePrices);
+            });
+            result.importedRows += size;
+        } catch (Exception e) {
+            log.error("Failed to insert {} imported assets into portfolio {}: {}", size, portfolioId, e.getMessage());
+            batch.forEach(row -> result.reject(row.lineNumber(), "Insert failed: " + e.getMessage()));
+        }
+    }
+
+    private record ImportRow(long lineNumber, CreateAssetRequest request) {
+    }
+
+    private static class ImportResult {
+        private int totalRows;
+        private int importedRows;
+        private int failedRows;
+        private final List<AssetImportResponse.RowError> errors = new ArrayList<>();
+
+        private void reject(long lineNumber, String message) {
+            failedRows++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new AssetImportResponse.RowError(lineNumber, message));
+            }
+        }
+    }
+}
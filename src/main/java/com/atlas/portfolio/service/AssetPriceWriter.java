@@ -0,0 +1,180 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.entity.enums.AssetType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@Slf4j
+public class AssetPriceWriter {
+
+    private static final String UPDATE_STOCK_PRICES_SQL = """
+            UPDATE assets a
+            SET current_price = u.price, price_updated_at = u.updated_at
+            FROM unnest(?::varchar[], ?::numeric(20,8)[], ?::timestamp[]) AS u(symbol, price, updated_at)
+            WHERE a.asset_type = 'STOCK' AND a.symbol = u.symbol""";
+    private static final String UPDATE_CASH_RATES_SQL = """
+            UPDATE assets a
+            SET current_price = u.price, price_updated_at = u.updated_at
+            FROM unnest(?::varchar[], ?::numeric(20,8)[], ?::timestamp[]) AS u(currency, price, updated_at)
+            WHERE a.asset_type = 'CASH' AND a.currency = u.currency""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PortfolioAggregateService portfolioAggregateService;
+    private final PriceHistoryService priceHistoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxBatchSize;
+
+    private final ConcurrentHashMap<String, PendingPrice> stockPrices = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, PendingPrice> cashRates = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSize;
+    private final Counter rowsWritten;
+
+    public AssetPriceWriter(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            PortfolioAggregateService portfolioAggregateService,
+            PriceHistoryService priceHistoryService,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${price-write-behind.max-batch-size:5000}") int maxBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.portfolioAggregateService = portfolioAggregateService;
+        this.priceHistoryService = priceHistoryService;
+        this.eventPublisher = eventPublisher;
+        this.maxBatchSize = maxBatchSize;
+        this.flushTimer = meterRegistry.timer("asset.price.flush");
+        this.batchSize = meterRegistry.summary("asset.price.flush.batch.size");
+        this.rowsWritten = meterRegistry.counter("asset.price.flush.rows");
+    }
+
+    public void enqueueStockPrice(String symbol, BigDecimal price, LocalDateTime updatedAt) {
+        enqueue(stockPrices, symbol, new PendingPrice(price, updatedAt));
+    }
+
+    public void enqueueCashRate(String currency, BigDecimal rate, LocalDateTime updatedAt) {
+        enqueue(cashRates, currency, new PendingPrice(rate, updatedAt));
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${price-write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void enqueue(Map<String, PendingPrice> pending, String key, PendingPrice price) {
+        merge(pending, key, price);
+
+        if (stockPrices.size() + cashRates.size() >= maxBatchSize && flushLock.tryLock()) {
+            try {
+                flushPending();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private void flushPending() {
+        Map<String, PendingPrice> stockBatch = drain(stockPrices);
+        Map<String, PendingPrice> cashBatch = drain(cashRates);
+        int entries = stockBatch.size() + cashBatch.size();
+        if (entries == 0) {
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            Integer rows = transactionTemplate.execute(status ->
+                    updatePrices(AssetType.STOCK, UPDATE_STOCK_PRICES_SQL, stockBatch)
+                            + updatePrices(AssetType.CASH, UPDATE_CASH_RATES_SQL, cashBatch));
+            long elapsedNanos = System.nanoTime() - startedAt;
+
+            flushTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            batchSize.record(entries);
+            rowsWritten.increment(rows);
+            eventPublisher.publishEvent(new PricesChangedEvent(stockBatch.keySet(), cashBatch.keySet()));
+            log.info("Flushed {} coalesced prices to {} asset rows in {} ms ({} rows/sec)",
+                    entries, rows, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    elapsedNanos > 0 ? rows * TimeUnit.SECONDS.toNanos(1) / elapsedNanos : rows);
+        } catch (Exception e) {
+            log.error("Failed to flush {} prices, re-queueing: {}", entries, e.getMessage());
+            stockBatch.forEach((symbol, price) -> merge(stockPrices, symbol, price));
+            cashBatch.forEach((currency, rate) -> merge(cashRates, currency, rate));
+        }
+    }
+
+    private void merge(Map<String, PendingPrice> pending, String key, PendingPrice price) {
+        pending.merge(key, price, (current, candidate) ->
+                candidate.updatedAt().isBefore(current.updatedAt()) ? current : candidate);
+    }
+
+    private Map<String, PendingPrice> drain(ConcurrentHashMap<String, PendingPrice> pending) {
+        Map<String, PendingPrice> drained = new HashMap<>();
+        for (String key : pending.keySet()) {
+            PendingPrice price = pending.remove(key);
+            if (price != null) {
+                drained.put(key, price);
+            }
+        }
+        return drained;
+    }
+
+    private int updatePrices(AssetType assetType, String sql, Map<String, PendingPrice> prices) {
+        if (prices.isEmpty()) {
+            return 0;
+        }
+
+        String[] keys = new String[prices.size()];
+        BigDecimal[] values = new BigDecimal[prices.size()];
+        Timestamp[] updatedAts = new Timestamp[prices.size()];
+        int i = 0;
+        for (Map.Entry<String, PendingPrice> entry : prices.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i] = entry.getValue().price();
+            updatedAts[i] = Timestamp.valueOf(entry.getValue().updatedAt());
+            i++;
+        }
+
+        portfolioAggregateService.applyPriceChanges(assetType, keys, values, updatedAts);
+        priceHistoryService.append(assetType, keys, values, updatedAts);
+        return jdbcTemplate.update(sql, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("varchar", keys));
+            ps.setArray(2, connection.createArrayOf("numeric", values));
+            ps.setArray(3, connection.createArrayOf("timestamp", updatedAts));
+        });
+    }
+
+    private record PendingPrice(BigDecimal price, LocalDateTime updatedAt) {
+    }
+}
@@ -1,26 +1,42 @@
 package com.atlas.portfolio.service;
 
+import com.atlas.portfolio.dto.request.BatchAssetRequest;
 import com.atlas.portfolio.dto.request.CreateAssetRequest;
 import com.atlas.portfolio.dto.request.UpdateAssetRequest;
+import com.atlas.portfolio.dto.response.AssetPageResponse;
 import com.atlas.portfolio.dto.response.AssetResponse;
+import com.atlas.portfolio.dto.response.BatchAssetResponse;
 import com.atlas.portfolio.entity.Asset;
 import com.atlas.portfolio.entity.Portfolio;
+import com.atlas.portfolio.entity.enums.AssetType;
 import com.atlas.portfolio.exception.ResourceNotFoundException;
 import com.atlas.portfolio.repository.AssetRepository;
 import com.atlas.portfolio.repository.PortfolioRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AssetService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final AssetRepository assetRepository;
     private final PortfolioRepository portfolioRepository;
+    private final PortfolioAggregateService portfolioAggregateService;
 
     @Transactional
     public AssetResponse createAsset(Long portfolioId, CreateAssetRequest request, Long userId) {
@@ -36,6 +52,7 @@ public class AssetService {
         asset.setCurrency(request.getCurrency().toUpperCase());
 
         Asset savedAsset = assetRepository.save(asset);
+        portfolioAggregateService.assetAdded(savedAsset);
         return new AssetResponse(savedAsset);
     }
 
@@ -49,6 +66,39 @@ public class AssetService {
                 .collect(Collectors.toList());
     }
 
+    public AssetPageResponse getAssetPage(Long portfolioId, Long afterId, int limit, AssetType assetType, Long userId) {
+        verifyPortfolioAccess(portfolioId, userId);
+
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        long cursor = afterId != null ? afterId : 0L;
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Asset> assets = assetType != null
+                ? assetRepository.findByPortfolioIdAndAssetTypeAndIdGreaterThanOrderByIdAsc(
+                        portfolioId, assetType, cursor, fetchLimit)
+                : assetRepository.findByPortfolioIdAndIdGreaterThanOrderByIdAsc(portfolioId, cursor, fetchLimit);
+
+        boolean hasMore = assets.size() > pageSize;
+        List<AssetResponse> items = assets.stream()
+                .limit(pageSize)
+                .map(AssetResponse::new)
+                .collect(Collectors.toList());
+        Long nextCursor = hasMore ? items.getLast().getId() : null;
+        return new AssetPageResponse(items, nextCursor);
+    }
+
+    public void verifyPortfolioAccess(Long portfolioId, Long userId) {
+        if (!portfolioRepository.existsByIdAndUserId(portfolioId, userId)) {
+            throw new ResourceNotFoundException("Portfolio not found with id: " + portfolioId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllAssets(Long portfolioId, Consumer<AssetResponse> consumer) {
+        try (Stream<AssetResponse> assets = assetRepository.streamByPortfolioId(portfolioId)) {
+            assets.forEach(consumer);
+        }
+    }
+
     public AssetResponse getAssetById(Long portfolioId, Long assetId, Long userId) {
         if (!portfolioRepository.existsByIdAndUserId(portfolioId, userId)) {
             throw new ResourceNotFoundException("Portfolio not found with id: " + portfolioId);
@@ -68,6 +118,9 @@ public class AssetService {
         Asset asset = assetRepository.findByIdAndPortfolioId(assetId, portfolioId)
                 .orElseThrow(() -> new ResourceNotFoundException("Asset not found with id: " + assetId));
 
+        BigDecimal previousQuantity = asset.getQuantity();
+        BigDecimal previousAveragePurchasePrice = asset.getAveragePurchasePrice();
+
         if (request.getQuantity() != null) {
             asset.setQuantity(request.getQuantity());
         }
@@ -76,6 +129,7 @@ public class AssetService {
         }
 
         Asset updatedAsset = assetRepository.save(asset);
+        portfolioAggregateService.assetUpdated(updatedAsset, previousQuantity, previousAveragePurchasePrice);
         return new AssetResponse(updatedAsset);
     }
 
@@ -88,5 +142,61 @@ public class AssetService {
         Asset asset = assetRepository.findByIdAndPortfolioId(assetId, portfolioId)
                 .orElseThrow(() -> new ResourceNotFoundException("Asset not found with id: " + assetId));
         assetRepository.delete(asset);
+        portfolioAggregateService.assetRemoved(asset);
+    }
+
+    @Transactional
+    public BatchAssetResponse applyBatch(Long portfolioId, BatchAssetRequest request, Long userId) {
+        verifyPortfolioAccess(portfolioId, userId);
+
+        Set<Long> assetIds = new HashSet<>(request.getDeletes());
+        request.getUpdates().forEach(update -> assetIds.add(update.getAssetId()));
+        Map<Long, Asset> assets = assetRepository.findAllByIdInAndPortfolioId(assetIds, portfolioId).stream()
+                .collect(Collectors.toMap(Asset::getId, Function.identity()));
+
+        List<BatchAssetResponse.ItemResult> results = new ArrayList<>();
+        List<PortfolioAggregateService.AssetChange> changes = new ArrayList<>();
+
+        for (BatchAssetRequest.AssetUpdate update : request.getUpdates()) {
+            Asset asset = assets.get(update.getAssetId());
+            if (asset == null) {
+                results.add(new BatchAssetResponse.ItemResult(update.getAssetId(),
+                        BatchAssetResponse.Action.UPDATE, BatchAssetResponse.Status.NOT_FOUND, null));
+                continue;
+            }
+
+            changes.add(PortfolioAggregateService.AssetChange.updated(
+                    asset, asset.getQuantity(), asset.getAveragePurchasePrice()));
+            if (update.getQuantity() != null) {
+                asset.setQuantity(update.getQuantity());
+            }
+            if (update.getAveragePurchasePrice() != null) {
+                asset.setAveragePurchasePrice(update.getAveragePurchasePrice());
+            }
+            results.add(new BatchAssetResponse.ItemResult(asset.getId(),
+                    BatchAssetResponse.Action.UPDATE, BatchAssetResponse.Status.UPDATED, new AssetResponse(asset)));
+        }
+
+        List<Asset> deleted = new ArrayList<>();
+        for (Long assetId : request.getDeletes()) {
+            Asset asset = assets.remove(assetId);
+            if (asset == null) {
+                results.add(new BatchAssetResponse.ItemResult(assetId,
+                        BatchAssetResponse.Action.DELETE, BatchAssetResponse.Status.NOT_FOUND, null));
+                continue;
+            }
+
+            deleted.add(asset);
+            changes.add(PortfolioAggregateService.AssetChange.removed(asset));
+            results.add(new BatchAssetResponse.ItemResult(assetId,
+                    BatchAssetResponse.Action.DELETE, BatchAssetResponse.Status.DELETED, null));
+        }
+
+        assetRepository.flush();
+        if (!deleted.isEmpty()) {
+            assetRepository.deleteAllInBatch(deleted);
+        }
+        portfolioAggregateService.assetsChanged(changes);
+        return new BatchAssetResponse(results);
     }
 }
@@ -0,0 +1,113 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.exception.UnsupportedCurrencyException;
+import com.atlas.portfolio.service.external.ExchangeRateSnapshot;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class CrossRateMatrix {
+
+    private final ExchangeRateSnapshot snapshot;
+    private final Map<String, Integer> currencyIds;
+    private final String[] currencyCodes;
+    private final BigDecimal[] rates;
+
+    private CrossRateMatrix(ExchangeRateSnapshot snapshot, Map<String, Integer> currencyIds,
+                            String[] currencyCodes, BigDecimal[] rates) {
+        this.snapshot = snapshot;
+        this.currencyIds = currencyIds;
+        this.currencyCodes = currencyCodes;
+        this.rates = rates;
+    }
+
+    public static CrossRateMatrix of(ExchangeRateSnapshot snapshot, String baseCurrency, int scale) {
+        Map<String, BigDecimal> ratesFromBase = new HashMap<>(snapshot.rates());
+        ratesFromBase.putIfAbsent(baseCurrency, BigDecimal.ONE);
+
+        int size = ratesFromBase.size();
+        String[] codes = ratesFromBase.keySet().stream().sorted().toArray(String[]::new);
+        Map<String, Integer> ids = new HashMap<>(size * 2);
+        BigDecimal[] baseRates = new BigDecimal[size];
+        for (int id = 0; id < size; id++) {
+            ids.put(codes[id], id);
+            baseRates[id] = codes[id].equals(baseCurrency) ? BigDecimal.ONE : ratesFromBase.get(codes[id]);
+        }
+
+        BigDecimal[] matrix = new BigDecimal[size * size];
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                matrix[from * size + to] = from == to
+                        ? BigDecimal.ONE
+                        : baseRates[to].divide(baseRates[from], scale, RoundingMode.HALF_UP);
+            }
+        }
+        return new CrossRateMatrix(snapshot, Map.copyOf(ids), codes, matrix);
+    }
+
+    public ExchangeRateSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int size() {
+        return currencyCodes.length;
+    }
+
+    public int currencyId(String currency) {
+        Integer id = currencyIds.get(currency);
+        return id != null ? id : -1;
+    }
+
+    public String currencyCode(int id) {
+        return currencyCodes[id];
+    }
+
+    public BigDecimal getRate(int fromId, int toId) {
+        return rates[fromId * currencyCodes.length + toId];
+    }
+
+    public BigDecimal getRate(String fromCurrency, String toCurrency) {
+        return getRate(requireId(fromCurrency), requireId(toCurrency));
+    }
+
+    public BigDecimal convert(BigDecimal amount, int fromId, int toId, int scale) {
+        if (fromId == toId) {
+            return amount;
+        }
+        return amount.multiply(getRate(fromId, toId)).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    public List<BigDecimal> convertAll(List<BigDecimal> amounts, List<String> fromCurrencies,
+                                       String toCurrency, int scale) {
+        if (amounts.size() != fromCurrencies.size()) {
+            throw new IllegalArgumentException("Expected one currency per amount but got "
+                    + fromCurrencies.size() + " currencies for " + amounts.size() + " amounts");
+        }
+
+        int toId = requireId(toCurrency);
+        List<BigDecimal> converted = new ArrayList<>(amounts.size());
+        String previousCurrency = null;
+        int fromId = -1;
+        for (int i = 0; i < amounts.size(); i++) {
+            String fromCurrency = fromCurrencies.get(i);
+            if (!fromCurrency.equals(previousCurrency)) {
+                fromId = requireId(fromCurrency);
+                previousCurrency = fromCurrency;
+            }
+            converted.add(convert(amounts.get(i), fromId, toId, scale));
+        }
+        return converted;
+    }
+
+    private int requireId(String currency) {
+        int id = currencyId(currency);
+        if (id < 0) {
+            throw new UnsupportedCurrencyException(currency);
+        }
+        return id;
+    }
+}
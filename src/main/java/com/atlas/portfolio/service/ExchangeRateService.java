@@ -1,41 +1,79 @@
 package com.atlas.portfolio.service;
 
+import com.atlas.portfolio.exception.UnsupportedCurrencyException;
 import com.atlas.portfolio.service.external.ExchangeRateApiClient;
-import lombok.RequiredArgsConstructor;
+import com.atlas.portfolio.service.external.ExchangeRateSnapshot;
+import com.atlas.portfolio.service.external.ExchangeRateStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class ExchangeRateService {
 
     private static final String BASE_CURRENCY = "USD";
     private static final int RATE_CALCULATION_SCALE = 10;
     private static final int MONEY_DISPLAY_SCALE = 2;
+    private static final Duration REFRESH_LEASE = Duration.ofMinutes(1);
+    private static final String CACHE_METRIC = "exchange.rates.cache.requests";
 
     private final ExchangeRateApiClient exchangeRateApiClient;
+    private final ExchangeRateStore exchangeRateStore;
+    private final Duration refreshAfter;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicReference<CrossRateMatrix> crossRates = new AtomicReference<>();
+    private final Object initialLoadLock = new Object();
+    private final Counter cacheHits;
+    private final Counter storeHits;
+    private final Counter cacheMisses;
+
+    public ExchangeRateService(
+            ExchangeRateApiClient exchangeRateApiClient,
+            ExchangeRateStore exchangeRateStore,
+            MeterRegistry meterRegistry,
+            @Value("${exchange-rates.ttl:PT6H}") Duration ttl,
+            @Value("${exchange-rates.refresh-ahead:PT30M}") Duration refreshAhead) {
+        this.exchangeRateApiClient = exchangeRateApiClient;
+        this.exchangeRateStore = exchangeRateStore;
+        this.refreshAfter = ttl.minus(refreshAhead);
+        this.cacheHits = meterRegistry.counter(CACHE_METRIC, "result", "hit");
+        this.storeHits = meterRegistry.counter(CACHE_METRIC, "result", "store");
+        this.cacheMisses = meterRegistry.counter(CACHE_METRIC, "result", "miss");
+        meterRegistry.gauge("exchange.rates.age.seconds", crossRates, current -> current.get() != null
+                ? Duration.between(current.get().getSnapshot().fetchedAt(), Instant.now()).toSeconds()
+                : Double.NaN);
+    }
 
-    @Cacheable(value = "allExchangeRates", key = "'USD'")
-    public Map<String, BigDecimal> getAllRatesFromUSD() {
-        log.info("Cache miss - fetching all exchange rates via API client");
-
-        try {
-            Map<String, BigDecimal> rates = exchangeRateApiClient.fetchAllRatesFromUSD();
-            log.info("Fetched and cached {} exchange rates", rates.size());
-            return rates;
+    @PostConstruct
+    public void subscribeInvalidations() {
+        exchangeRateStore.subscribeInvalidations(this::onInvalidation);
+    }
 
-        } catch (Exception e) {
-            log.error("Error fetching exchange rates: {}", e.getMessage());
-            throw new RuntimeException("Failed to fetch exchange rates", e);
+    public CrossRateMatrix getCrossRates() {
+        CrossRateMatrix current = crossRates.get();
+        if (current != null) {
+            cacheHits.increment();
+            return current;
         }
+        return loadInitialRates();
+    }
+
+    public Map<String, BigDecimal> getAllRatesFromUSD() {
+        return getCrossRates().getSnapshot().rates();
     }
 
     public BigDecimal getRateFromUSD(String targetCurrency) {
@@ -47,21 +85,24 @@ public class ExchangeRateService {
         BigDecimal rate = rates.get(targetCurrency);
 
         if (rate == null) {
-            throw new RuntimeException("Currency not supported: " + targetCurrency);
+            throw new UnsupportedCurrencyException(targetCurrency);
         }
 
         return rate;
     }
 
+    public void requireSupportedCurrency(String currency) {
+        if (!BASE_CURRENCY.equals(currency) && getCrossRates().currencyId(currency) < 0) {
+            throw new UnsupportedCurrencyException(currency);
+        }
+    }
+
     public BigDecimal getRate(String fromCurrency, String toCurrency) {
         if (fromCurrency.equals(toCurrency)) {
             return BigDecimal.ONE;
         }
 
-        BigDecimal fromRate = getRateFromUSD(fromCurrency);
-        BigDecimal toRate = getRateFromUSD(toCurrency);
-
-        return toRate.divide(fromRate, RATE_CALCULATION_SCALE, RoundingMode.HALF_UP);
+        return getCrossRates().getRate(fromCurrency, toCurrency);
     }
 
     public BigDecimal convert(BigDecimal amount, String fromCurrency, String toCurrency) {
@@ -73,26 +114,90 @@ public class ExchangeRateService {
         return amount.multiply(rate).setScale(MONEY_DISPLAY_SCALE, RoundingMode.HALF_UP);
     }
 
-    @Scheduled(cron = "0 0 */6 * * *")
-    @CacheEvict(value = "allExchangeRates", allEntries = true)
+    public List<BigDecimal> convertAll(List<BigDecimal> amounts, List<String> fromCurrencies, String toCurrency) {
+        return getCrossRates().convertAll(amounts, fromCurrencies, toCurrency, MONEY_DISPLAY_SCALE);
+    }
+
+    @Scheduled(fixedDelayString = "${exchange-rates.refresh-check-interval-ms:300000}")
     public void refreshExchangeRateCache() {
-        log.info("Starting scheduled exchange rate cache refresh");
+        if (!isRefreshDue()) {
+            return;
+        }
 
-        try {
-            Map<String, BigDecimal> rates = getAllRatesFromUSD();
-            log.info("Exchange rate cache refreshed successfully with {} currencies", rates.size());
+        exchangeRateStore.load().ifPresent(this::offer);
+        if (!isRefreshDue() || !exchangeRateStore.tryLockRefresh(nodeId, REFRESH_LEASE)) {
+            return;
+        }
 
+        try {
+            CrossRateMatrix refreshed = fetchAndPublish();
+            log.info("Exchange rates refreshed ahead of expiry with {} currencies", refreshed.size());
         } catch (Exception e) {
-            log.error("Failed to refresh exchange rate cache: {}", e.getMessage(), e);
+            CrossRateMatrix current = crossRates.get();
+            log.error("Failed to refresh exchange rates, serving rates fetched at {}: {}",
+                    current != null ? current.getSnapshot().fetchedAt() : null, e.getMessage());
+        } finally {
+            exchangeRateStore.unlockRefresh(nodeId);
         }
     }
 
-    @CacheEvict(value = "allExchangeRates", allEntries = true)
-    public void clearCache() {
-        log.info("Exchange rate cache cleared manually");
-    }
-
     public Map<String, BigDecimal> getAllSupportedCurrencies() {
         return getAllRatesFromUSD();
     }
+
+    private CrossRateMatrix loadInitialRates() {
+        synchronized (initialLoadLock) {
+            CrossRateMatrix current = crossRates.get();
+            if (current != null) {
+                cacheHits.increment();
+                return current;
+            }
+
+            ExchangeRateSnapshot stored = exchangeRateStore.load().orElse(null);
+            if (stored != null) {
+                storeHits.increment();
+                return offer(stored);
+            }
+
+            cacheMisses.increment();
+            log.info("No cached exchange rates - fetching all exchange rates via API client");
+            try {
+                return fetchAndPublish();
+            } catch (Exception e) {
+                log.error("Error fetching exchange rates: {}", e.getMessage());
+                throw new RuntimeException("Failed to fetch exchange rates", e);
+            }
+        }
+    }
+
+    private CrossRateMatrix fetchAndPublish() {
+        ExchangeRateSnapshot fetched = new ExchangeRateSnapshot(
+                exchangeRateApiClient.fetchAllRatesFromUSD(), Instant.now());
+        exchangeRateStore.save(fetched);
+        CrossRateMatrix rates = offer(fetched);
+        exchangeRateStore.publishInvalidation(nodeId);
+        return rates;
+    }
+
+    private CrossRateMatrix offer(ExchangeRateSnapshot candidate) {
+        CrossRateMatrix current = crossRates.get();
+        if (current != null && !candidate.isNewerThan(current.getSnapshot())) {
+            return current;
+        }
+
+        CrossRateMatrix built = CrossRateMatrix.of(candidate, BASE_CURRENCY, RATE_CALCULATION_SCALE);
+        return crossRates.accumulateAndGet(built, (existing, offered) ->
+                existing == null || offered.getSnapshot().isNewerThan(existing.getSnapshot()) ? offered : existing);
+    }
+
+    private void onInvalidation(String sourceNodeId) {
+        if (!nodeId.equals(sourceNodeId)) {
+            exchangeRateStore.load().ifPresent(this::offer);
+        }
+    }
+
+    private boolean isRefreshDue() {
+        CrossRateMatrix current = crossRates.get();
+        return current == null || !current.getSnapshot().fetchedAt().plus(refreshAfter).isAfter(Instant.now());
+    }
 }
@@ -0,0 +1,374 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.entity.Asset;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.repository.projection.AssetTypeTotals;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class PortfolioAggregateService {
+
+    private static final int AMOUNT_SCALE = 8;
+    private static final String JDBC_BATCH_METRIC = "jdbc.batch.update";
+
+    private static final String FIND_BY_PORTFOLIO_SQL = """
+            SELECT asset_type, currency, total_value, total_invested, asset_count, priced_count, last_price_update
+            FROM portfolio_aggregates
+            WHERE portfolio_id = ? AND asset_count > 0""";
+
+    private static final String APPLY_ASSET_DELTA_SQL = """
+            INSERT INTO portfolio_aggregates AS agg
+                (portfolio_id, asset_type, currency, total_invested, total_value, asset_count, priced_count)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (portfolio_id, asset_type, currency) DO UPDATE SET
+                total_invested = agg.total_invested + EXCLUDED.total_invested,
+                total_value = agg.total_value + EXCLUDED.total_value,
+                asset_count = agg.asset_count + EXCLUDED.asset_count,
+                priced_count = agg.priced_count + EXCLUDED.priced_count""";
+
+    private static final String INSERT_FLOW_SQL = """
+            INSERT INTO portfolio_flows (portfolio_id, asset_type, currency, amount, recorded_at)
+            VALUES (?, ?, ?, ?, ?)""";
+
+    private static final String REFRESH_LAST_PRICE_UPDATE_SQL = """
+            UPDATE portfolio_aggregates
+            SET last_price_update = (
+                SELECT MAX(price_updated_at) FROM assets
+                WHERE portfolio_id = ? AND asset_type = ? AND currency = ? AND id <> ALL(?::bigint[]))
+            WHERE portfolio_id = ? AND asset_type = ? AND currency = ?""";
+
+    private static final String APPLY_PRICE_DELTAS_SQL = """
+            WITH d AS (
+                SELECT a.portfolio_id, a.asset_type, a.currency,
+                       SUM(a.quantity * (u.price - COALESCE(a.current_price, 0))) AS value_delta,
+                       COUNT(*) FILTER (WHERE a.current_price IS NULL) AS newly_priced,
+                       SUM(a.quantity * u.price) FILTER (WHERE a.current_price IS NULL) AS first_priced_value,
+                       MAX(u.updated_at) AS updated_at
+                FROM assets a
+                JOIN unnest(?::varchar[], ?::numeric(20,8)[], ?::timestamp[]) AS u(price_key, price, updated_at)
+                    ON a.%s = u.price_key
+                WHERE a.asset_type = ?
+                GROUP BY a.portfolio_id, a.asset_type, a.currency),
+            first_priced_flows AS (
+                INSERT INTO portfolio_flows (portfolio_id, asset_type, currency, amount, recorded_at)
+                SELECT portfolio_id, asset_type, currency, first_priced_value, LOCALTIMESTAMP
+                FROM d
+                WHERE first_priced_value <> 0)
+            UPDATE portfolio_aggregates agg
+            SET total_value = agg.total_value + d.value_delta,
+                priced_count = agg.priced_count + d.newly_priced,
+                last_price_update = GREATEST(agg.last_price_update, d.updated_at)
+            FROM d
+            WHERE agg.portfolio_id = d.portfolio_id
+              AND agg.asset_type = d.asset_type
+              AND agg.currency = d.currency""";
+    private static final String APPLY_STOCK_PRICE_DELTAS_SQL = APPLY_PRICE_DELTAS_SQL.formatted("symbol");
+    private static final String APPLY_CASH_RATE_DELTAS_SQL = APPLY_PRICE_DELTAS_SQL.formatted("currency");
+
+    private static final String EXPECTED_AGGREGATES_SQL = """
+            SELECT portfolio_id, asset_type, currency,
+                   SUM(quantity * average_purchase_price) AS total_invested,
+                   COALESCE(SUM(quantity * current_price), 0) AS total_value,
+                   COUNT(*) AS asset_count,
+                   COUNT(current_price) AS priced_count,
+                   MAX(price_updated_at) AS last_price_update
+            FROM assets""";
+
+    private static final String FIND_DRIFT_SQL = """
+            WITH expected AS (%s GROUP BY portfolio_id, asset_type, currency)
+            SELECT COALESCE(e.portfolio_id, g.portfolio_id) AS portfolio_id,
+                   COALESCE(e.asset_type, g.asset_type) AS asset_type,
+                   COALESCE(e.currency, g.currency) AS currency
+            FROM expected e
+            FULL OUTER JOIN portfolio_aggregates g
+                ON g.portfolio_id = e.portfolio_id AND g.asset_type = e.asset_type AND g.currency = e.currency
+            WHERE (e.portfolio_id IS NULL AND g.asset_count <> 0)
+               OR g.portfolio_id IS NULL
+               OR g.total_invested <> e.total_invested
+               OR g.total_value <> e.total_value
+               OR g.asset_count <> e.asset_count
+               OR g.priced_count <> e.priced_count
+               OR g.last_price_update IS DISTINCT FROM e.last_price_update""".formatted(EXPECTED_AGGREGATES_SQL);
+
+    private static final String LOCK_AGGREGATE_SQL = """
+            SELECT portfolio_id FROM portfolio_aggregates
+            WHERE portfolio_id = ? AND asset_type = ? AND currency = ?
+            FOR UPDATE""";
+
+    private static final String DELETE_AGGREGATE_SQL =
+            "DELETE FROM portfolio_aggregates WHERE portfolio_id = ? AND asset_type = ? AND currency = ?";
+
+    private static final String RECOMPUTE_AGGREGATE_SQL = """
+            INSERT INTO portfolio_aggregates
+                (portfolio_id, asset_type, currency, total_invested, total_value,
+                 asset_count, priced_count, last_price_update)
+            %s
+            WHERE portfolio_id = ? AND asset_type = ? AND currency = ?
+            GROUP BY portfolio_id, asset_type, currency""".formatted(EXPECTED_AGGREGATES_SQL);
+
+    private static final String DELETE_EMPTY_AGGREGATES_SQL =
+            "DELETE FROM portfolio_aggregates WHERE asset_count = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter driftCounter;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PortfolioAggregateService(JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     MeterRegistry meterRegistry,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.driftCounter = meterRegistry.counter("portfolio.aggregates.drift");
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public List<AssetTypeTotals> findByPortfolioId(Long portfolioId) {
+        return jdbcTemplate.query(FIND_BY_PORTFOLIO_SQL, (rs, rowNum) -> {
+            Timestamp lastPriceUpdate = rs.getTimestamp("last_price_update");
+            return new AssetTypeTotals(
+                    AssetType.valueOf(rs.getString("asset_type")),
+                    rs.getString("currency"),
+                    rs.getBigDecimal("total_value"),
+                    rs.getBigDecimal("total_invested"),
+                    rs.getLong("asset_count"),
+                    rs.getLong("priced_count"),
+                    lastPriceUpdate != null ? lastPriceUpdate.toLocalDateTime() : null);
+        }, portfolioId);
+    }
+
+    public void assetAdded(Asset asset) {
+        applyAssetDelta(asset,
+                multiply(asset.getQuantity(), asset.getAveragePurchasePrice()),
+                multiply(asset.getQuantity(), asset.getCurrentPrice()),
+                1,
+                asset.getCurrentPrice() != null ? 1 : 0);
+        recordFlows(Map.of(aggregateKey(asset), multiply(asset.getQuantity(), asset.getCurrentPrice())));
+        eventPublisher.publishEvent(new PortfolioHoldingsChangedEvent(asset.getPortfolio().getId()));
+    }
+
+    public void assetUpdated(Asset asset, BigDecimal previousQuantity, BigDecimal previousAveragePurchasePrice) {
+        assetsChanged(List.of(AssetChange.updated(asset, previousQuantity, previousAveragePurchasePrice)));
+    }
+
+    public void assetRemoved(Asset asset) {
+        assetsChanged(List.of(AssetChange.removed(asset)));
+    }
+
+    public void assetsChanged(List<AssetChange> changes) {
+        Map<AggregateKey, AggregateDelta> deltas = new LinkedHashMap<>();
+        Map<AggregateKey, List<Long>> removedPricedIds = new LinkedHashMap<>();
+        Map<AggregateKey, BigDecimal> flows = new LinkedHashMap<>();
+        for (AssetChange change : changes) {
+            Asset asset = change.asset();
+            AggregateKey key = aggregateKey(asset);
+            AggregateDelta delta;
+            if (change.removed()) {
+                flows.merge(key, multiply(asset.getQuantity(), asset.getCurrentPrice()).negate(), BigDecimal::add);
+                delta = new AggregateDelta(
+                        multiply(asset.getQuantity(), asset.getAveragePurchasePrice()).negate(),
+                        multiply(asset.getQuantity(), asset.getCurrentPrice()).negate(),
+                        -1,
+                        asset.getCurrentPrice() != null ? -1 : 0);
+                if (asset.getPriceUpdatedAt() != null) {
+                    removedPricedIds.computeIfAbsent(key, k -> new ArrayList<>()).add(asset.getId());
+                }
+            } else {
+                flows.merge(key, multiply(asset.getQuantity().subtract(change.previousQuantity()),
+                        asset.getCurrentPrice()), BigDecimal::add);
+                delta = new AggregateDelta(
+                        multiply(asset.getQuantity(), asset.getAveragePurchasePrice())
+                                .subtract(multiply(change.previousQuantity(), change.previousAveragePurchasePrice())),
+                        multiply(asset.getQuantity(), asset.getCurrentPrice())
+                                .subtract(multiply(change.previousQuantity(), asset.getCurrentPrice())),
+                        0,
+                        0);
+            }
+            deltas.merge(key, delta, AggregateDelta::plus);
+        }
+
+        batchUpdate("aggregate_deltas", APPLY_ASSET_DELTA_SQL, deltas.entrySet().stream()
+                .map(entry -> new Object[]{
+                        entry.getKey().portfolioId(),
+                        entry.getKey().assetType(),
+                        entry.getKey().currency(),
+                        entry.getValue().invested(),
+                        entry.getValue().value(),
+                        entry.getValue().count(),
+                        entry.getValue().priced()})
+                .toList());
+        recordFlows(flows);
+
+        removedPricedIds.forEach((key, ids) -> jdbcTemplate.update(REFRESH_LAST_PRICE_UPDATE_SQL, ps -> {
+            ps.setLong(1, key.portfolioId());
+            ps.setString(2, key.assetType());
+            ps.setString(3, key.currency());
+            ps.setArray(4, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+            ps.setLong(5, key.portfolioId());
+            ps.setString(6, key.assetType());
+            ps.setString(7, key.currency());
+        }));
+
+        deltas.keySet().stream()
+                .map(AggregateKey::portfolioId)
+                .distinct()
+                .forEach(portfolioId -> eventPublisher.publishEvent(new PortfolioHoldingsChangedEvent(portfolioId)));
+    }
+
+    public void assetsImported(Long portfolioId, String[] assetTypes, String[] currencies,
+                               BigDecimal[] quantities, BigDecimal[] averagePurchasePrices) {
+        Map<List<String>, BigDecimal> investedByKey = new HashMap<>();
+        Map<List<String>, Integer> countByKey = new HashMap<>();
+        for (int i = 0; i < assetTypes.length; i++) {
+            List<String> key = List.of(assetTypes[i], currencies[i]);
+            investedByKey.merge(key, multiply(quantities[i], averagePurchasePrices[i]), BigDecimal::add);
+            countByKey.merge(key, 1, Integer::sum);
+        }
+
+        batchUpdate("aggregate_import", APPLY_ASSET_DELTA_SQL, investedByKey.entrySet().stream()
+                .map(entry -> new Object[]{
+                        portfolioId,
+                        entry.getKey().get(0),
+                        entry.getKey().get(1),
+                        entry.getValue(),
+                        BigDecimal.ZERO,
+                        countByKey.get(entry.getKey()),
+                        0})
+                .toList());
+        eventPublisher.publishEvent(new PortfolioHoldingsChangedEvent(portfolioId));
+    }
+
+    /**
+     * Records external cash flows at market value so snapshots can separate them from returns: a holding that
+     * leaves the portfolio takes its current value with it, not its cost. Unpriced holdings add nothing to
+     * total value, so they move no flow either; their flow is booked when they are first priced.
+     */
+    private void recordFlows(Map<AggregateKey, BigDecimal> flows) {
+        Timestamp recordedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = flows.entrySet().stream()
+                .filter(entry -> entry.getValue().signum() != 0)
+                .map(entry -> new Object[]{
+                        entry.getKey().portfolioId(),
+                        entry.getKey().assetType(),
+                        entry.getKey().currency(),
+                        entry.getValue(),
+                        recordedAt})
+                .toList();
+        if (!batchArgs.isEmpty()) {
+            batchUpdate("portfolio_flows", INSERT_FLOW_SQL, batchArgs);
+        }
+    }
+
+    private void batchUpdate(String operation, String sql, List<Object[]> batchArgs) {
+        long startedAt = System.nanoTime();
+        jdbcTemplate.batchUpdate(sql, batchArgs);
+        meterRegistry.timer(JDBC_BATCH_METRIC, "operation", operation)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        meterRegistry.summary(JDBC_BATCH_METRIC + ".size", "operation", operation).record(batchArgs.size());
+    }
+
+    public void applyPriceChanges(AssetType assetType, String[] priceKeys, BigDecimal[] prices, Timestamp[] updatedAts) {
+        String sql = assetType == AssetType.CASH ? APPLY_CASH_RATE_DELTAS_SQL : APPLY_STOCK_PRICE_DELTAS_SQL;
+        jdbcTemplate.update(sql, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("varchar", priceKeys));
+            ps.setArray(2, connection.createArrayOf("numeric", prices));
+            ps.setArray(3, connection.createArrayOf("timestamp", updatedAts));
+            ps.setString(4, assetType.name());
+        });
+    }
+
+    @Scheduled(cron = "${portfolio-aggregates.reconcile-cron:0 30 * * * *}")
+    public void reconcile() {
+        List<AggregateKey> drifted = jdbcTemplate.query(FIND_DRIFT_SQL, (rs, rowNum) -> new AggregateKey(
+                rs.getLong("portfolio_id"), rs.getString("asset_type"), rs.getString("currency")));
+
+        for (AggregateKey key : drifted) {
+            log.warn("Portfolio aggregate drift detected for portfolio {} ({}, {}), recomputing",
+                    key.portfolioId(), key.assetType(), key.currency());
+            transactionTemplate.executeWithoutResult(status -> recompute(key));
+        }
+        driftCounter.increment(drifted.size());
+
+        int removed = jdbcTemplate.update(DELETE_EMPTY_AGGREGATES_SQL);
+        log.info("Portfolio aggregate reconciliation finished: {} drifted rows recomputed, {} empty rows removed",
+                drifted.size(), removed);
+    }
+
+    private void recompute(AggregateKey key) {
+        jdbcTemplate.queryForList(LOCK_AGGREGATE_SQL, key.portfolioId(), key.assetType(), key.currency());
+        jdbcTemplate.update(DELETE_AGGREGATE_SQL, key.portfolioId(), key.assetType(), key.currency());
+        jdbcTemplate.update(RECOMPUTE_AGGREGATE_SQL, key.portfolioId(), key.assetType(), key.currency());
+    }
+
+    private void applyAssetDelta(Asset asset, BigDecimal investedDelta, BigDecimal valueDelta,
+                                 int countDelta, int pricedDelta) {
+        jdbcTemplate.update(APPLY_ASSET_DELTA_SQL,
+                asset.getPortfolio().getId(),
+                asset.getAssetType().name(),
+                asset.getCurrency(),
+                investedDelta,
+                valueDelta,
+                countDelta,
+                pricedDelta);
+    }
+
+    private AggregateKey aggregateKey(Asset asset) {
+        return new AggregateKey(asset.getPortfolio().getId(), asset.getAssetType().name(), asset.getCurrency());
+    }
+
+    private BigDecimal multiply(BigDecimal quantity, BigDecimal price) {
+        if (price == null) {
+            return BigDecimal.ZERO;
+        }
+        return quantity.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP)
+                .multiply(price.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP));
+    }
+
+    public record AssetChange(Asset asset, BigDecimal previousQuantity, BigDecimal previousAveragePurchasePrice,
+                              boolean removed) {
+
+        public static AssetChange updated(Asset asset, BigDecimal previousQuantity,
+                                          BigDecimal previousAveragePurchasePrice) {
+            return new AssetChange(asset, previousQuantity, previousAveragePurchasePrice, false);
+        }
+
+        public static AssetChange removed(Asset asset) {
+            return new AssetChange(asset, null, null, true);
+        }
+    }
+
+    private record AggregateKey(Long portfolioId, String assetType, String currency) {
+    }
+
+    private record AggregateDelta(BigDecimal invested, BigDecimal value, int count, int priced) {
+
+        private AggregateDelta plus(AggregateDelta other) {
+            return new AggregateDelta(invested.add(other.invested), value.add(other.value),
+                    count + other.count, priced + other.priced);
+        }
+    }
+}
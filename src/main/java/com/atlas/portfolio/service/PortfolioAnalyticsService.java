@@ -3,18 +3,28 @@ package com.atlas.portfolio.service;
 import com.atlas.portfolio.dto.response.PortfolioSummaryResponse;
 import com.atlas.portfolio.entity.Asset;
 import com.atlas.portfolio.entity.Portfolio;
+import com.atlas.portfolio.entity.enums.AssetType;
 import com.atlas.portfolio.exception.ResourceNotFoundException;
 import com.atlas.portfolio.repository.AssetRepository;
 import com.atlas.portfolio.repository.PortfolioRepository;
+import com.atlas.portfolio.repository.projection.AssetTypeTotals;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,19 +33,108 @@ public class PortfolioAnalyticsService {
 
     private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
     private static final int PERCENTAGE_SCALE = 4;
+    private static final int CONVERTED_AMOUNT_SCALE = 16;
+    private static final String DEFAULT_REPORTING_CURRENCY = "USD";
+    private static final String CASH_VALUATION_CURRENCY = "USD";
+    private static final String SUMMARY_METRIC = "portfolio.summary";
+    private static final int[] SIZE_BUCKET_BOUNDS = {10, 100, 1_000, 10_000, 100_000};
 
     private final PortfolioRepository portfolioRepository;
     private final AssetRepository assetRepository;
+    private final PortfolioAggregateService portfolioAggregateService;
+    private final PriceBook priceBook;
+    private final ExchangeRateService exchangeRateService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${analytics.summary.source:aggregates}")
+    private SummarySource summarySource;
+
+    public enum SummarySource {
+        ENTITIES,
+        QUERY,
+        AGGREGATES
+    }
 
     public PortfolioSummaryResponse getPortfolioSummary(Long portfolioId, Long userId) {
+        return getPortfolioSummary(portfolioId, userId, DEFAULT_REPORTING_CURRENCY);
+    }
+
+    public PortfolioSummaryResponse getPortfolioSummary(Long portfolioId, Long userId, String reportingCurrency) {
+        return getPortfolioSummary(portfolioId, userId, reportingCurrency, summarySource);
+    }
+
+    PortfolioSummaryResponse getPortfolioSummary(Long portfolioId, Long userId, String reportingCurrency,
+                                                 SummarySource source) {
+        long startedAt = System.nanoTime();
+        String currency = reportingCurrency.toUpperCase();
+        if (!currency.equals(DEFAULT_REPORTING_CURRENCY)) {
+            exchangeRateService.requireSupportedCurrency(currency);
+        }
         Portfolio portfolio = portfolioRepository.findByIdAndUserId(portfolioId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
-        List<Asset> assets = assetRepository.findByPortfolioId(portfolioId);
 
-        if (assets.isEmpty()) {
+        List<AssetTypeTotals> totals = switch (source) {
+            case ENTITIES -> getTotals(assetRepository.findByPortfolioId(portfolioId));
+            case QUERY -> assetRepository.findTotalsByPortfolioId(portfolioId);
+            case AGGREGATES -> portfolioAggregateService.findByPortfolioId(portfolioId);
+        };
+
+        PortfolioSummaryResponse summary = buildSummary(portfolio, currency, toReportingCurrency(totals, currency));
+        meterRegistry.timer(SUMMARY_METRIC,
+                        "source", source.name().toLowerCase(),
+                        "size", sizeBucket(summary.getTotalAssets()))
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return summary;
+    }
+
+    private static String sizeBucket(int assetCount) {
+        int lowerBound = 0;
+        for (int upperBound : SIZE_BUCKET_BOUNDS) {
+            if (assetCount <= upperBound) {
+                return lowerBound + "-" + upperBound;
+            }
+            lowerBound = upperBound + 1;
+        }
+        return lowerBound + "+";
+    }
+
+    private List<AssetTypeTotals> toReportingCurrency(List<AssetTypeTotals> totals, String reportingCurrency) {
+        CrossRateMatrix rates = null;
+        List<AssetTypeTotals> converted = new ArrayList<>(totals.size());
+        for (AssetTypeTotals total : totals) {
+            String valuationCurrency = total.assetType() == AssetType.CASH ? CASH_VALUATION_CURRENCY : total.currency();
+            if (valuationCurrency.equals(reportingCurrency)) {
+                converted.add(total);
+                continue;
+            }
+
+            if (rates == null) {
+                rates = exchangeRateService.getCrossRates();
+            }
+            BigDecimal rate = rates.getRate(valuationCurrency, reportingCurrency);
+            converted.add(new AssetTypeTotals(
+                    total.assetType(),
+                    total.currency(),
+                    convert(total.totalValue(), rate),
+                    convert(total.totalInvested(), rate),
+                    total.assetCount(),
+                    total.pricedCount(),
+                    total.lastPriceUpdate()));
+        }
+        return converted;
+    }
+
+    private BigDecimal convert(BigDecimal amount, BigDecimal rate) {
+        return amount != null ? amount.multiply(rate).setScale(CONVERTED_AMOUNT_SCALE, RoundingMode.HALF_UP) : null;
+    }
+
+    private PortfolioSummaryResponse buildSummary(Portfolio portfolio, String reportingCurrency,
+                                                  List<AssetTypeTotals> totals) {
+        if (totals.isEmpty()) {
             return new PortfolioSummaryResponse(
                     portfolio.getId(),
                     portfolio.getName(),
+                    reportingCurrency,
                     BigDecimal.ZERO,
                     BigDecimal.ZERO,
                     BigDecimal.ZERO,
@@ -46,10 +145,10 @@ public class PortfolioAnalyticsService {
             );
         }
 
-        BigDecimal totalValue = getTotalValue(assets);
-        BigDecimal totalInvested = getTotalInvested(assets);
-        LocalDateTime lastPriceUpdate = assets.stream()
-                .map(Asset::getPriceUpdatedAt)
+        BigDecimal totalValue = sumValues(totals);
+        BigDecimal totalInvested = sumInvested(totals);
+        LocalDateTime lastPriceUpdate = totals.stream()
+                .map(AssetTypeTotals::lastPriceUpdate)
                 .filter(Objects::nonNull)
                 .max(LocalDateTime::compareTo)
                 .orElse(null);
@@ -60,29 +159,150 @@ public class PortfolioAnalyticsService {
         return new PortfolioSummaryResponse(
                 portfolio.getId(),
                 portfolio.getName(),
+                reportingCurrency,
                 totalValue,
                 totalInvested,
                 totalProfitLoss,
                 totalProfitLossPercent,
-                assets.size(),
+                countAssets(totals),
                 lastPriceUpdate,
-                getBreakdown(assets, totalValue)
+                getBreakdown(totals, totalValue)
         );
     }
 
+    private List<AssetTypeTotals> getTotals(List<Asset> assets) {
+        try {
+            return getFixedPointTotals(assets);
+        } catch (ArithmeticException e) {
+            return getDecimalTotals(assets);
+        }
+    }
+
+    private List<AssetTypeTotals> getFixedPointTotals(List<Asset> assets) {
+        ValuationKernel kernel = new ValuationKernel(assets.size());
+        Map<AssetType, Map<String, Integer>> groupIds = new EnumMap<>(AssetType.class);
+        List<AssetType> groupTypes = new ArrayList<>();
+        List<String> groupCurrencies = new ArrayList<>();
+        List<LocalDateTime> groupPriceUpdates = new ArrayList<>();
+
+        for (Asset asset : assets) {
+            Map<String, Integer> currencyGroupIds =
+                    groupIds.computeIfAbsent(asset.getAssetType(), type -> new HashMap<>());
+            Integer groupId = currencyGroupIds.get(asset.getCurrency());
+            if (groupId == null) {
+                groupId = groupTypes.size();
+                currencyGroupIds.put(asset.getCurrency(), groupId);
+                groupTypes.add(asset.getAssetType());
+                groupCurrencies.add(asset.getCurrency());
+                groupPriceUpdates.add(null);
+            }
+
+            PriceBook.Quote quote = getStreamedQuote(asset).orElse(null);
+            BigDecimal price = quote != null ? quote.price() : asset.getCurrentPrice();
+            LocalDateTime priceUpdatedAt = quote != null ? quote.updatedAt() : asset.getPriceUpdatedAt();
+            kernel.add(groupId, asset.getQuantity(), price, asset.getAveragePurchasePrice());
+
+            LocalDateTime groupPriceUpdate = groupPriceUpdates.get(groupId);
+            if (priceUpdatedAt != null && (groupPriceUpdate == null || priceUpdatedAt.isAfter(groupPriceUpdate))) {
+                groupPriceUpdates.set(groupId, priceUpdatedAt);
+            }
+        }
+
+        ValuationKernel.GroupTotals[] groupTotals = kernel.accumulate();
+        List<AssetTypeTotals> totals = new ArrayList<>(groupTotals.length);
+        for (int groupId = 0; groupId < groupTotals.length; groupId++) {
+            ValuationKernel.GroupTotals group = groupTotals[groupId];
+            totals.add(new AssetTypeTotals(
+                    groupTypes.get(groupId),
+                    groupCurrencies.get(groupId),
+                    group.totalValue(),
+                    group.totalInvested(),
+                    group.assetCount(),
+                    group.pricedCount(),
+                    groupPriceUpdates.get(groupId)));
+        }
+        return totals;
+    }
+
+    private List<AssetTypeTotals> getDecimalTotals(List<Asset> assets) {
+        Map<AssetType, Map<String, List<Asset>>> assetsByTypeAndCurrency = assets.stream()
+                .collect(Collectors.groupingBy(Asset::getAssetType,
+                        Collectors.groupingBy(Asset::getCurrency)));
+
+        return assetsByTypeAndCurrency.entrySet().stream()
+                .flatMap(byType -> byType.getValue().entrySet().stream()
+                        .map(byCurrency -> {
+                            List<Asset> groupAssets = byCurrency.getValue();
+                            return new AssetTypeTotals(
+                                    byType.getKey(),
+                                    byCurrency.getKey(),
+                                    getTotalValue(groupAssets),
+                                    getTotalInvested(groupAssets),
+                                    groupAssets.size(),
+                                    groupAssets.stream().map(this::getMarketValue).filter(Objects::nonNull).count(),
+                                    groupAssets.stream()
+                                            .map(this::getPriceUpdatedAt)
+                                            .filter(Objects::nonNull)
+                                            .max(LocalDateTime::compareTo)
+                                            .orElse(null));
+                        }))
+                .toList();
+    }
+
     private BigDecimal getTotalValue(List<Asset> assets) {
         return assets.stream()
-                .filter(asset -> asset.getCurrentPrice() != null)
-                .map(asset -> asset.getCurrentPrice().multiply(asset.getQuantity()))
+                .map(this::getMarketValue)
+                .filter(Objects::nonNull)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
+    private BigDecimal getMarketValue(Asset asset) {
+        BigDecimal currentPrice = getStreamedQuote(asset)
+                .map(PriceBook.Quote::price)
+                .orElse(asset.getCurrentPrice());
+        return currentPrice != null ? currentPrice.multiply(asset.getQuantity()) : null;
+    }
+
+    private LocalDateTime getPriceUpdatedAt(Asset asset) {
+        return getStreamedQuote(asset)
+                .map(PriceBook.Quote::updatedAt)
+                .orElse(asset.getPriceUpdatedAt());
+    }
+
+    private Optional<PriceBook.Quote> getStreamedQuote(Asset asset) {
+        if (asset.getAssetType() != AssetType.STOCK) {
+            return Optional.empty();
+        }
+        return priceBook.getQuote(asset.getSymbol())
+                .filter(quote -> asset.getPriceUpdatedAt() == null
+                        || quote.updatedAt().isAfter(asset.getPriceUpdatedAt()));
+    }
+
     private BigDecimal getTotalInvested(List<Asset> assets) {
         return assets.stream()
                 .map(asset -> asset.getAveragePurchasePrice().multiply(asset.getQuantity()))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
+    private BigDecimal sumValues(List<AssetTypeTotals> totals) {
+        return totals.stream()
+                .filter(total -> total.pricedCount() > 0)
+                .map(AssetTypeTotals::totalValue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private BigDecimal sumInvested(List<AssetTypeTotals> totals) {
+        return totals.stream()
+                .map(AssetTypeTotals::totalInvested)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private int countAssets(List<AssetTypeTotals> totals) {
+        return (int) totals.stream()
+                .mapToLong(AssetTypeTotals::assetCount)
+                .sum();
+    }
+
     private BigDecimal calculatePercentage(BigDecimal value, BigDecimal total) {
         if (total.compareTo(BigDecimal.ZERO) > 0) {
             return value.divide(total, PERCENTAGE_SCALE, RoundingMode.HALF_UP)
@@ -92,16 +312,16 @@ public class PortfolioAnalyticsService {
     }
 
     private List<PortfolioSummaryResponse.AssetTypeBreakdown> getBreakdown(
-            List<Asset> assets, BigDecimal totalPortfolioValue) {
-        Map<String, List<Asset>> assetsByType = assets.stream()
-                .collect(Collectors.groupingBy(asset -> asset.getAssetType().name()));
-        return assetsByType.entrySet().stream()
+            List<AssetTypeTotals> totals, BigDecimal totalPortfolioValue) {
+        Map<String, List<AssetTypeTotals>> totalsByType = totals.stream()
+                .collect(Collectors.groupingBy(total -> total.assetType().name()));
+        return totalsByType.entrySet().stream()
                 .map(entry -> {
                     String assetType = entry.getKey();
-                    List<Asset> typeAssets = entry.getValue();
+                    List<AssetTypeTotals> typeTotals = entry.getValue();
 
-                    BigDecimal totalValue = getTotalValue(typeAssets);
-                    BigDecimal totalInvested = getTotalInvested(typeAssets);
+                    BigDecimal totalValue = sumValues(typeTotals);
+                    BigDecimal totalInvested = sumInvested(typeTotals);
                     BigDecimal profitLoss = totalValue.subtract(totalInvested);
 
                     BigDecimal portfolioPercentage = calculatePercentage(totalValue, totalPortfolioValue);
@@ -114,10 +334,11 @@ public class PortfolioAnalyticsService {
                             profitLoss,
                             profitLossPercent,
                             portfolioPercentage,
-                            typeAssets.size()
+                            countAssets(typeTotals)
                     );
                 })
-                .sorted((a, b) -> b.getTotalValue().compareTo(a.getTotalValue()))
+                .sorted(Comparator.comparing(PortfolioSummaryResponse.AssetTypeBreakdown::getTotalValue).reversed()
+                        .thenComparing(PortfolioSummaryResponse.AssetTypeBreakdown::getAssetType))
                 .toList();
     }
 }
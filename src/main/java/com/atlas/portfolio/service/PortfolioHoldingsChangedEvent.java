@@ -0,0 +1,4 @@
+package com.atlas.portfolio.service;
+
+public record PortfolioHoldingsChangedEvent(Long portfolioId) {
+}
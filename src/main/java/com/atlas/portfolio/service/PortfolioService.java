@@ -2,6 +2,7 @@ package com.atlas.portfolio.service;
 
 import com.atlas.portfolio.dto.request.CreatePortfolioRequest;
 import com.atlas.portfolio.dto.request.UpdatePortfolioRequest;
+import com.atlas.portfolio.dto.response.PortfolioHeaderResponse;
 import com.atlas.portfolio.dto.response.PortfolioResponse;
 import com.atlas.portfolio.entity.Portfolio;
 import com.atlas.portfolio.exception.ResourceNotFoundException;
@@ -30,12 +31,18 @@ public class PortfolioService {
         return new PortfolioResponse(savedPortfolio);
     }
 
+    @Transactional(readOnly = true)
     public List<PortfolioResponse> getAllPortfolios(Long userId) {
-        return portfolioRepository.findByUserId(userId).stream()
+        return portfolioRepository.findWithAssetsByUserId(userId).stream()
                 .map(PortfolioResponse::new)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<PortfolioHeaderResponse> getPortfolioHeaders(Long userId) {
+        return portfolioRepository.findHeadersByUserId(userId);
+    }
+
     public PortfolioResponse getPortfolioById(Long id, Long userId) {
         Portfolio portfolio = portfolioRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + id));
@@ -0,0 +1,257 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.dto.response.PortfolioPerformanceResponse;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.exception.ResourceNotFoundException;
+import com.atlas.portfolio.repository.PortfolioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PortfolioSnapshotService {
+
+    private static final String SNAPSHOT_CURRENCY = "USD";
+    private static final int AMOUNT_SCALE = 8;
+    private static final int INDEX_SCALE = 12;
+    private static final int PERCENTAGE_SCALE = 4;
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+
+    private static final String FIND_AGGREGATES_SQL = """
+            SELECT portfolio_id, asset_type, currency, total_value, total_invested
+            FROM portfolio_aggregates
+            WHERE asset_count > 0""";
+
+    private static final String CLAIM_FLOWS_SQL = """
+            WITH claimed AS (
+                UPDATE portfolio_flows SET snapshot_date = ?
+                WHERE snapshot_date IS NULL
+                RETURNING portfolio_id, asset_type, currency, amount)
+            SELECT portfolio_id, asset_type, currency, SUM(amount) AS amount
+            FROM (
+                SELECT portfolio_id, asset_type, currency, amount FROM claimed
+                UNION ALL
+                SELECT portfolio_id, asset_type, currency, amount FROM portfolio_flows WHERE snapshot_date = ?) f
+            GROUP BY portfolio_id, asset_type, currency""";
+
+    private static final String FIND_PREVIOUS_SNAPSHOTS_SQL = """
+            SELECT p.id AS portfolio_id, s.total_value, s.total_invested, s.twr_index
+            FROM portfolios p
+            CROSS JOIN LATERAL (
+                SELECT total_value, total_invested, twr_index
+                FROM portfolio_snapshots
+                WHERE portfolio_id = p.id AND snapshot_date < ?
+                ORDER BY snapshot_date DESC
+                LIMIT 1) s""";
+
+    private static final String UPSERT_SNAPSHOT_SQL = """
+            INSERT INTO portfolio_snapshots
+                (portfolio_id, snapshot_date, total_value, total_invested, net_flow, twr_index, captured_at)
+            SELECT ?, ?, ?, ?, ?, ?, ?
+            WHERE EXISTS (SELECT 1 FROM portfolios WHERE id = ?)
+            ON CONFLICT (portfolio_id, snapshot_date) DO UPDATE SET
+                total_value = EXCLUDED.total_value,
+                total_invested = EXCLUDED.total_invested,
+                net_flow = EXCLUDED.net_flow,
+                twr_index = EXCLUDED.twr_index,
+                captured_at = EXCLUDED.captured_at""";
+
+    private static final String FIND_POINTS_SQL = """
+            SELECT snapshot_date, total_value, total_invested, twr_index
+            FROM portfolio_snapshots
+            WHERE portfolio_id = ? AND snapshot_date BETWEEN ? AND ?
+            ORDER BY snapshot_date""";
+
+    private static final String FIND_BASE_INDEX_SQL = """
+            SELECT twr_index
+            FROM portfolio_snapshots
+            WHERE portfolio_id = ? AND snapshot_date < ?
+            ORDER BY snapshot_date DESC
+            LIMIT 1""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PortfolioRepository portfolioRepository;
+    private final ExchangeRateService exchangeRateService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(cron = "${portfolio-snapshots.cron:0 */15 * * * *}")
+    public void captureSnapshots() {
+        captureSnapshots(LocalDate.now());
+    }
+
+    public int captureSnapshots(LocalDate snapshotDate) {
+        long startedAt = System.currentTimeMillis();
+        Integer captured = transactionTemplate.execute(status -> capture(snapshotDate));
+        log.info("Captured {} portfolio snapshots for {} in {} ms",
+                captured, snapshotDate, System.currentTimeMillis() - startedAt);
+        return captured;
+    }
+
+    private int capture(LocalDate snapshotDate) {
+        CurrencyConverter converter = new CurrencyConverter();
+        Map<Long, Totals> current = getCurrentTotals(converter);
+        getFlows(snapshotDate, converter).forEach((portfolioId, flow) ->
+                current.merge(portfolioId, new Totals(BigDecimal.ZERO, BigDecimal.ZERO, flow), Totals::plus));
+        current.replaceAll((portfolioId, total) -> total.rounded());
+        Map<Long, Snapshot> previous = getPreviousSnapshots(snapshotDate);
+
+        Set<Long> portfolioIds = new HashSet<>(current.keySet());
+        portfolioIds.addAll(previous.keySet());
+
+        Timestamp capturedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(portfolioIds.size());
+        for (Long portfolioId : portfolioIds) {
+            Totals totals = current.getOrDefault(portfolioId, Totals.EMPTY);
+            Snapshot snapshot = nextSnapshot(previous.get(portfolioId), totals);
+            batchArgs.add(new Object[]{
+                    portfolioId,
+                    Date.valueOf(snapshotDate),
+                    snapshot.totalValue(),
+                    snapshot.totalInvested(),
+                    snapshot.netFlow(),
+                    snapshot.twrIndex(),
+                    capturedAt,
+                    portfolioId});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SNAPSHOT_SQL, batchArgs);
+        return batchArgs.size();
+    }
+
+    public PortfolioPerformanceResponse getPerformance(Long portfolioId, Long userId, LocalDate from, LocalDate to) {
+        portfolioRepository.findByIdAndUserId(portfolioId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
+
+        BigDecimal baseIndex = jdbcTemplate.query(FIND_BASE_INDEX_SQL,
+                        (rs, rowNum) -> rs.getBigDecimal("twr_index"), portfolioId, Date.valueOf(from))
+                .stream()
+                .findFirst()
+                .orElse(BigDecimal.ONE);
+
+        List<PortfolioPerformanceResponse.PerformancePoint> points = jdbcTemplate.query(FIND_POINTS_SQL,
+                (rs, rowNum) -> new PortfolioPerformanceResponse.PerformancePoint(
+                        rs.getDate("snapshot_date").toLocalDate(),
+                        rs.getBigDecimal("total_value"),
+                        rs.getBigDecimal("total_invested"),
+                        returnPercent(rs.getBigDecimal("twr_index"), baseIndex)),
+                portfolioId, Date.valueOf(from), Date.valueOf(to));
+
+        BigDecimal timeWeightedReturn = points.isEmpty()
+                ? BigDecimal.ZERO
+                : points.getLast().getTimeWeightedReturnPercent();
+        return new PortfolioPerformanceResponse(portfolioId, SNAPSHOT_CURRENCY, from, to, timeWeightedReturn, points);
+    }
+
+    /**
+     * Chains the previous snapshot forward. Net flow is the market value of holdings added or removed since the
+     * previous snapshot and is treated as arriving at the end of the period, so the period return is
+     * (value - flow) / previous value.
+     */
+    static Snapshot nextSnapshot(Snapshot previous, Totals totals) {
+        BigDecimal netFlow = totals.flow();
+        if (previous == null) {
+            return new Snapshot(totals.value(), totals.invested(), netFlow, BigDecimal.ONE);
+        }
+
+        BigDecimal twrIndex = previous.twrIndex();
+        if (previous.totalValue().signum() > 0) {
+            twrIndex = twrIndex.multiply(totals.value().subtract(netFlow))
+                    .divide(previous.totalValue(), INDEX_SCALE, RoundingMode.HALF_UP);
+        }
+        return new Snapshot(totals.value(), totals.invested(), netFlow, twrIndex);
+    }
+
+    private Map<Long, Totals> getCurrentTotals(CurrencyConverter converter) {
+        Map<Long, Totals> totals = new HashMap<>();
+        jdbcTemplate.query(FIND_AGGREGATES_SQL, rs -> {
+            BigDecimal rate = converter.rate(rs.getString("asset_type"), rs.getString("currency"));
+            totals.merge(rs.getLong("portfolio_id"), new Totals(
+                    rs.getBigDecimal("total_value").multiply(rate),
+                    rs.getBigDecimal("total_invested").multiply(rate),
+                    BigDecimal.ZERO), Totals::plus);
+        });
+        return totals;
+    }
+
+    private Map<Long, BigDecimal> getFlows(LocalDate snapshotDate, CurrencyConverter converter) {
+        Map<Long, BigDecimal> flows = new HashMap<>();
+        jdbcTemplate.query(CLAIM_FLOWS_SQL, rs -> {
+            BigDecimal rate = converter.rate(rs.getString("asset_type"), rs.getString("currency"));
+            flows.merge(rs.getLong("portfolio_id"), rs.getBigDecimal("amount").multiply(rate), BigDecimal::add);
+        }, Date.valueOf(snapshotDate), Date.valueOf(snapshotDate));
+        return flows;
+    }
+
+    private Map<Long, Snapshot> getPreviousSnapshots(LocalDate snapshotDate) {
+        Map<Long, Snapshot> snapshots = new HashMap<>();
+        jdbcTemplate.query(FIND_PREVIOUS_SNAPSHOTS_SQL, rs -> {
+            snapshots.put(rs.getLong("portfolio_id"), new Snapshot(
+                    rs.getBigDecimal("total_value"),
+                    rs.getBigDecimal("total_invested"),
+                    null,
+                    rs.getBigDecimal("twr_index")));
+        }, Date.valueOf(snapshotDate));
+        return snapshots;
+    }
+
+    private BigDecimal returnPercent(BigDecimal twrIndex, BigDecimal baseIndex) {
+        if (baseIndex.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return twrIndex.divide(baseIndex, INDEX_SCALE, RoundingMode.HALF_UP)
+                .subtract(BigDecimal.ONE)
+                .multiply(ONE_HUNDRED)
+                .setScale(PERCENTAGE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private class CurrencyConverter {
+
+        private CrossRateMatrix rates;
+
+        private BigDecimal rate(String assetType, String currency) {
+            String valuationCurrency = AssetType.valueOf(assetType) == AssetType.CASH ? SNAPSHOT_CURRENCY : currency;
+            if (valuationCurrency.equals(SNAPSHOT_CURRENCY)) {
+                return BigDecimal.ONE;
+            }
+            if (rates == null) {
+                rates = exchangeRateService.getCrossRates();
+            }
+            return rates.getRate(valuationCurrency, SNAPSHOT_CURRENCY);
+        }
+    }
+
+    record Totals(BigDecimal value, BigDecimal invested, BigDecimal flow) {
+
+        static final Totals EMPTY = new Totals(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+
+        private Totals plus(Totals other) {
+            return new Totals(value.add(other.value), invested.add(other.invested), flow.add(other.flow));
+        }
+
+        private Totals rounded() {
+            return new Totals(value.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP),
+                    invested.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP),
+                    flow.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP));
+        }
+    }
+
+    record Snapshot(BigDecimal totalValue, BigDecimal totalInvested, BigDecimal netFlow, BigDecimal twrIndex) {
+    }
+}
@@ -0,0 +1,336 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.exception.ResourceNotFoundException;
+import com.atlas.portfolio.repository.AssetRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes portfolio summaries to SSE subscribers. Subscribers of the same portfolio and reporting currency share a
+ * channel whose summary is recomputed at most once per dispatch, and only after a price or holding it depends on has
+ * changed. Each subscriber receives JSON merge patches against the last summary it was sent, no more often than its
+ * own interval; a subscriber that is still writing the previous event skips ahead to the latest summary instead of
+ * queueing intermediate ones.
+ */
+@Service
+@Slf4j
+public class PortfolioStreamService {
+
+    private static final String SUMMARY_EVENT = "summary";
+    private static final String PATCH_EVENT = "patch";
+
+    private final PortfolioAnalyticsService portfolioAnalyticsService;
+    private final AssetRepository assetRepository;
+    private final ObjectMapper objectMapper;
+    private final long minIntervalMillis;
+    private final Duration timeout;
+
+    private final Map<Long, Map<String, Channel>> channelsByPortfolio = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> portfoliosByStockSymbol = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> portfoliosByCashCurrency = new ConcurrentHashMap<>();
+    private final Map<Long, PriceKeys> priceKeysByPortfolio = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter sentEvents;
+    private final Counter skippedEvents;
+
+    public PortfolioStreamService(
+            PortfolioAnalyticsService portfolioAnalyticsService,
+            AssetRepository assetRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${portfolio-stream.min-interval-ms:250}") long minIntervalMillis,
+            @Value("${portfolio-stream.timeout:PT30M}") Duration timeout) {
+        this.portfolioAnalyticsService = portfolioAnalyticsService;
+        this.assetRepository = assetRepository;
+        this.objectMapper = objectMapper;
+        this.minIntervalMillis = minIntervalMillis;
+        this.timeout = timeout;
+        this.sentEvents = meterRegistry.counter("portfolio.stream.events", "result", "sent");
+        this.skippedEvents = meterRegistry.counter("portfolio.stream.events", "result", "skipped");
+        meterRegistry.gauge("portfolio.stream.subscribers", channelsByPortfolio, channels -> channels.values().stream()
+                .flatMap(byCurrency -> byCurrency.values().stream())
+                .mapToInt(channel -> channel.subscribers.size())
+                .sum());
+    }
+
+    public SseEmitter subscribe(Long portfolioId, Long userId, String reportingCurrency, long intervalMillis) {
+        String currency = reportingCurrency.toUpperCase();
+        JsonNode summary = objectMapper.valueToTree(
+                portfolioAnalyticsService.getPortfolioSummary(portfolioId, userId, currency));
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, Math.max(intervalMillis, minIntervalMillis));
+        Channel channel = join(portfolioId, userId, currency, summary, subscriber);
+
+        emitter.onCompletion(() -> leave(channel, subscriber));
+        emitter.onTimeout(() -> leave(channel, subscriber));
+        emitter.onError(e -> leave(channel, subscriber));
+
+        Snapshot snapshot = channel.snapshot;
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(SUMMARY_EVENT)
+                    .id(Long.toString(snapshot.version()))
+                    .data(snapshot.summary(), MediaType.APPLICATION_JSON));
+            subscriber.sent(snapshot, System.currentTimeMillis());
+        } catch (Exception e) {
+            leave(channel, subscriber);
+            emitter.completeWithError(e);
+        } finally {
+            subscriber.sending.set(false);
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onPricesChanged(PricesChangedEvent event) {
+        markChanged(portfoliosByStockSymbol, event.stockSymbols());
+        markChanged(portfoliosByCashCurrency, event.cashCurrencies());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldingsChanged(PortfolioHoldingsChangedEvent event) {
+        Map<String, Channel> channels = channelsByPortfolio.get(event.portfolioId());
+        if (channels != null) {
+            channels.values().forEach(channel -> {
+                channel.holdingsChanged = true;
+                channel.dirty = true;
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${portfolio-stream.dispatch-interval-ms:250}")
+    public void dispatch() {
+        long now = System.currentTimeMillis();
+        for (Map<String, Channel> channels : channelsByPortfolio.values()) {
+            for (Channel channel : channels.values()) {
+                if (channel.dirty) {
+                    refresh(channel);
+                }
+                Snapshot snapshot = channel.snapshot;
+                for (Subscriber subscriber : channel.subscribers) {
+                    if (subscriber.sentVersion < snapshot.version()
+                            && now - subscriber.sentAt >= subscriber.intervalMillis) {
+                        send(channel, subscriber, snapshot);
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channelsByPortfolio.values().forEach(channels -> channels.values().forEach(channel ->
+                channel.subscribers.forEach(subscriber -> subscriber.emitter.complete())));
+        sender.shutdown();
+    }
+
+    /**
+     * Returns an RFC 7396 merge patch that turns {@code previous} into {@code next}. Arrays are replaced whole.
+     */
+    static JsonNode mergePatch(JsonNode previous, JsonNode next, ObjectMapper objectMapper) {
+        ObjectNode patch = objectMapper.createObjectNode();
+        previous.fieldNames().forEachRemaining(field -> {
+            if (!next.has(field)) {
+                patch.putNull(field);
+            }
+        });
+        next.properties().forEach(field -> {
+            JsonNode previousValue = previous.get(field.getKey());
+            JsonNode nextValue = field.getValue();
+            if (nextValue.equals(previousValue)) {
+                return;
+            }
+            patch.set(field.getKey(), previousValue != null && previousValue.isObject() && nextValue.isObject()
+                    ? mergePatch(previousValue, nextValue, objectMapper)
+                    : nextValue);
+        });
+        return patch;
+    }
+
+    private void refresh(Channel channel) {
+        channel.dirty = false;
+        try {
+            if (channel.holdingsChanged) {
+                channel.holdingsChanged = false;
+                index(channel.portfolioId);
+            }
+            JsonNode summary = objectMapper.valueToTree(portfolioAnalyticsService.getPortfolioSummary(
+                    channel.portfolioId, channel.userId, channel.currency));
+            Snapshot current = channel.snapshot;
+            if (!summary.equals(current.summary())) {
+                channel.snapshot = new Snapshot(current.version() + 1, summary);
+            }
+        } catch (ResourceNotFoundException e) {
+            log.info("Closing summary stream of removed portfolio {}", channel.portfolioId);
+            channel.subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        } catch (Exception e) {
+            log.warn("Failed to refresh streamed summary of portfolio {}: {}", channel.portfolioId, e.getMessage());
+            channel.dirty = true;
+        }
+    }
+
+    private void send(Channel channel, Subscriber subscriber, Snapshot snapshot) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            skippedEvents.increment();
+            return;
+        }
+
+        sender.execute(() -> {
+            try {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name(PATCH_EVENT)
+                        .id(Long.toString(snapshot.version()))
+                        .data(mergePatch(subscriber.sentSummary, snapshot.summary(), objectMapper),
+                                MediaType.APPLICATION_JSON));
+                subscriber.sent(snapshot, System.currentTimeMillis());
+                sentEvents.increment();
+            } catch (Exception e) {
+                log.debug("Dropping summary stream subscriber of portfolio {}: {}", channel.portfolioId,
+                        e.getMessage());
+                leave(channel, subscriber);
+                subscriber.emitter.completeWithError(e);
+            } finally {
+                subscriber.sending.set(false);
+            }
+        });
+    }
+
+    private synchronized Channel join(Long portfolioId, Long userId, String currency, JsonNode summary,
+                                      Subscriber subscriber) {
+        Map<String, Channel> channels = channelsByPortfolio.computeIfAbsent(portfolioId, id -> {
+            index(id);
+            return new ConcurrentHashMap<>();
+        });
+        Channel channel = channels.computeIfAbsent(currency, c ->
+                new Channel(portfolioId, userId, currency, new Snapshot(1, summary)));
+        channel.subscribers.add(subscriber);
+        return channel;
+    }
+
+    private synchronized void leave(Channel channel, Subscriber subscriber) {
+        channel.subscribers.remove(subscriber);
+        if (!channel.subscribers.isEmpty()) {
+            return;
+        }
+
+        Map<String, Channel> channels = channelsByPortfolio.get(channel.portfolioId);
+        if (channels == null || !channels.remove(channel.currency, channel) || !channels.isEmpty()) {
+            return;
+        }
+        channelsByPortfolio.remove(channel.portfolioId);
+        PriceKeys keys = priceKeysByPortfolio.remove(channel.portfolioId);
+        if (keys != null) {
+            removeFromIndex(portfoliosByStockSymbol, keys.stockSymbols(), channel.portfolioId);
+            removeFromIndex(portfoliosByCashCurrency, keys.cashCurrencies(), channel.portfolioId);
+        }
+    }
+
+    private synchronized void index(Long portfolioId) {
+        PriceKeys keys = new PriceKeys(
+                assetRepository.findDistinctSymbolsByPortfolioIdAndAssetType(portfolioId, AssetType.STOCK),
+                assetRepository.findDistinctCurrenciesByPortfolioIdAndAssetType(portfolioId, AssetType.CASH));
+        PriceKeys previous = priceKeysByPortfolio.put(portfolioId, keys);
+        if (previous != null) {
+            removeFromIndex(portfoliosByStockSymbol, previous.stockSymbols(), portfolioId);
+            removeFromIndex(portfoliosByCashCurrency, previous.cashCurrencies(), portfolioId);
+        }
+        addToIndex(portfoliosByStockSymbol, keys.stockSymbols(), portfolioId);
+        addToIndex(portfoliosByCashCurrency, keys.cashCurrencies(), portfolioId);
+    }
+
+    private void addToIndex(Map<String, Set<Long>> index, Collection<String> keys, Long portfolioId) {
+        keys.forEach(key -> index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(portfolioId));
+    }
+
+    private void removeFromIndex(Map<String, Set<Long>> index, Collection<String> keys, Long portfolioId) {
+        keys.forEach(key -> index.computeIfPresent(key, (k, portfolioIds) -> {
+            portfolioIds.remove(portfolioId);
+            return portfolioIds.isEmpty() ? null : portfolioIds;
+        }));
+    }
+
+    private void markChanged(Map<String, Set<Long>> index, Collection<String> keys) {
+        for (String key : keys) {
+            Set<Long> portfolioIds = index.get(key);
+            if (portfolioIds == null) {
+                continue;
+            }
+            for (Long portfolioId : portfolioIds) {
+                Map<String, Channel> channels = channelsByPortfolio.get(portfolioId);
+                if (channels != null) {
+                    channels.values().forEach(channel -> channel.dirty = true);
+                }
+            }
+        }
+    }
+
+    private record PriceKeys(List<String> stockSymbols, List<String> cashCurrencies) {
+    }
+
+    private record Snapshot(long version, JsonNode summary) {
+    }
+
+    private static final class Channel {
+
+        private final Long portfolioId;
+        private final Long userId;
+        private final String currency;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private volatile Snapshot snapshot;
+        private volatile boolean dirty;
+        private volatile boolean holdingsChanged;
+
+        private Channel(Long portfolioId, Long userId, String currency, Snapshot snapshot) {
+            this.portfolioId = portfolioId;
+            this.userId = userId;
+            this.currency = currency;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final long intervalMillis;
+        private final AtomicBoolean sending = new AtomicBoolean(true);
+        private volatile JsonNode sentSummary;
+        private volatile long sentVersion;
+        private volatile long sentAt;
+
+        private Subscriber(SseEmitter emitter, long intervalMillis) {
+            this.emitter = emitter;
+            this.intervalMillis = intervalMillis;
+        }
+
+        private void sent(Snapshot snapshot, long at) {
+            sentSummary = snapshot.summary();
+            sentVersion = snapshot.version();
+            sentAt = at;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.atlas.portfolio.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last streamed quote per symbol, held off-heap. Each symbol is interned to a dense slot id; a slot stores the price
+ * as a long scaled by 10^{@value #PRICE_SCALE}, the update time and a sequence number used as a seqlock, so readers
+ * never block and writers only contend on the slot they update. When {@code price-book.file} is set the book is a
+ * memory-mapped file and survives restarts, otherwise it lives in a direct buffer.
+ */
+@Component
+@Slf4j
+public class PriceBook {
+
+    private static final int PRICE_SCALE = ValuationKernel.SCALE;
+    private static final int MAGIC = 0x50424b31;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 64;
+    private static final int MAX_SYMBOL_BYTES = SLOT_SIZE - 28;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int SIZE_OFFSET = 8;
+
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int PRICE_OFFSET = 8;
+    private static final int UPDATED_AT_OFFSET = 16;
+    private static final int SYMBOL_LENGTH_OFFSET = 24;
+    private static final int SYMBOL_OFFSET = 28;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final ConcurrentHashMap<String, Integer> slotIds = new ConcurrentHashMap<>();
+    private int size;
+
+    public PriceBook(@Value("${price-book.capacity:65536}") int capacity,
+                     @Value("${price-book.file:}") String file) {
+        this.capacity = capacity;
+        long length = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+        this.buffer = file.isBlank() ? ByteBuffer.allocateDirect(Math.toIntExact(length)) : map(Path.of(file), length);
+        this.buffer.order(ByteOrder.nativeOrder());
+        load();
+    }
+
+    public boolean update(String symbol, BigDecimal price, LocalDateTime updatedAt) {
+        long scaledPrice;
+        try {
+            scaledPrice = price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            log.warn("Price {} for {} does not fit the price book", price, symbol);
+            return false;
+        }
+
+        int slot = slotId(symbol);
+        if (slot < 0) {
+            return false;
+        }
+
+        int offset = slotOffset(slot);
+        long sequence = lockSlot(offset);
+        long currentUpdatedAt = (long) LONGS.get(buffer, offset + UPDATED_AT_OFFSET);
+        long nextUpdatedAt = toEpochNanos(updatedAt);
+        if (sequence != 0 && nextUpdatedAt < currentUpdatedAt) {
+            LONGS.setRelease(buffer, offset + SEQUENCE_OFFSET, sequence);
+            return false;
+        }
+
+        long currentPrice = (long) LONGS.get(buffer, offset + PRICE_OFFSET);
+        LONGS.set(buffer, offset + PRICE_OFFSET, scaledPrice);
+        LONGS.set(buffer, offset + UPDATED_AT_OFFSET, nextUpdatedAt);
+        LONGS.setRelease(buffer, offset + SEQUENCE_OFFSET, sequence + 2);
+        return sequence == 0 || currentPrice != scaledPrice;
+    }
+
+    public Optional<Quote> getQuote(String symbol) {
+        Integer slot = slotIds.get(symbol);
+        if (slot == null) {
+            return Optional.empty();
+        }
+
+        int offset = slotOffset(slot);
+        while (true) {
+            long sequence = (long) LONGS.getAcquire(buffer, offset + SEQUENCE_OFFSET);
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long scaledPrice = (long) LONGS.get(buffer, offset + PRICE_OFFSET);
+            long updatedAt = (long) LONGS.get(buffer, offset + UPDATED_AT_OFFSET);
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.get(buffer, offset + SEQUENCE_OFFSET) == sequence) {
+                if (sequence == 0) {
+                    return Optional.empty();
+                }
+                return Optional.of(new Quote(BigDecimal.valueOf(scaledPrice, PRICE_SCALE), fromEpochNanos(updatedAt)));
+            }
+        }
+    }
+
+    public Optional<Quote> getQuote(String symbol, LocalDateTime notBefore) {
+        return getQuote(symbol).filter(quote -> !quote.updatedAt().isBefore(notBefore));
+    }
+
+    public int size() {
+        return slotIds.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (buffer instanceof MappedByteBuffer mapped) {
+            mapped.force();
+        }
+    }
+
+    private int slotId(String symbol) {
+        Integer slot = slotIds.get(symbol);
+        if (slot != null) {
+            return slot;
+        }
+
+        synchronized (slotIds) {
+            slot = slotIds.get(symbol);
+            if (slot != null) {
+                return slot;
+            }
+
+            byte[] bytes = symbol.getBytes(StandardCharsets.UTF_8);
+            if (size == capacity || bytes.length > MAX_SYMBOL_BYTES) {
+                log.warn("Price book cannot hold symbol {} ({} of {} slots used)", symbol, size, capacity);
+                return -1;
+            }
+
+            int offset = slotOffset(size);
+            INTS.set(buffer, offset + SYMBOL_LENGTH_OFFSET, bytes.length);
+            buffer.put(offset + SYMBOL_OFFSET, bytes);
+            INTS.setRelease(buffer, SIZE_OFFSET, size + 1);
+            slotIds.put(symbol, size);
+            return size++;
+        }
+    }
+
+    private long lockSlot(int offset) {
+        while (true) {
+            long sequence = (long) LONGS.getVolatile(buffer, offset + SEQUENCE_OFFSET);
+            if ((sequence & 1) == 0 && LONGS.compareAndSet(buffer, offset + SEQUENCE_OFFSET, sequence, sequence + 1)) {
+                VarHandle.storeStoreFence();
+                return sequence;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void load() {
+        int magic = (int) INTS.get(buffer, MAGIC_OFFSET);
+        if (magic != MAGIC || (int) INTS.get(buffer, CAPACITY_OFFSET) != capacity) {
+            if (magic != 0) {
+                log.warn("Discarding price book with an incompatible layout");
+                for (int offset = 0; offset < buffer.capacity(); offset += Long.BYTES) {
+                    LONGS.set(buffer, offset, 0L);
+                }
+            }
+            INTS.set(buffer, MAGIC_OFFSET, MAGIC);
+            INTS.set(buffer, CAPACITY_OFFSET, capacity);
+            INTS.set(buffer, SIZE_OFFSET, 0);
+            return;
+        }
+
+        size = (int) INTS.get(buffer, SIZE_OFFSET);
+        for (int slot = 0; slot < size; slot++) {
+            int offset = slotOffset(slot);
+            byte[] bytes = new byte[(int) INTS.get(buffer, offset + SYMBOL_LENGTH_OFFSET)];
+            buffer.get(offset + SYMBOL_OFFSET, bytes);
+            slotIds.put(new String(bytes, StandardCharsets.UTF_8), slot);
+
+            // A write interrupted by a crash leaves an odd sequence and a possibly torn quote
+            if (((long) LONGS.get(buffer, offset + SEQUENCE_OFFSET) & 1) != 0) {
+                LONGS.set(buffer, offset + SEQUENCE_OFFSET, 0L);
+            }
+        }
+        log.info("Loaded {} quotes from the price book", size);
+    }
+
+    private static MappedByteBuffer map(Path file, long length) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map price book file " + file, e);
+        }
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static long toEpochNanos(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+
+    private static LocalDateTime fromEpochNanos(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                (int) Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    public record Quote(BigDecimal price, LocalDateTime updatedAt) {
+    }
+}
@@ -0,0 +1,253 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.dto.response.PriceBarsResponse;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.exception.InvalidRequestException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+@Slf4j
+public class PriceHistoryService {
+
+    private static final String PARTITION_PREFIX = "price_history_p";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{8})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Timestamp BEGINNING_OF_HISTORY = Timestamp.valueOf("1970-01-01 00:00:00");
+    private static final int MAX_POINTS = 5000;
+
+    private static final String APPEND_SQL = """
+            INSERT INTO price_history (asset_type, symbol, price, recorded_at)
+            SELECT ?, u.symbol, u.price, u.recorded_at
+            FROM unnest(?::varchar[], ?::numeric(20,8)[], ?::timestamp[]) AS u(symbol, price, recorded_at)
+            ON CONFLICT DO NOTHING""";
+    private static final String CREATE_PARTITION_SQL = """
+            CREATE TABLE IF NOT EXISTS %s PARTITION OF price_history
+            FOR VALUES FROM ('%s') TO ('%s')""";
+    private static final String FIND_PARTITIONS_SQL = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'price_history'::regclass""";
+    private static final String DELETE_EXPIRED_DEFAULT_SQL =
+            "DELETE FROM price_history_default WHERE recorded_at < ?";
+    private static final String LAST_BAR_SQL =
+            "SELECT MAX(bucket_start) FROM price_bars WHERE resolution = ?";
+    private static final String ROLLUP_FROM_HISTORY_SQL = """
+            INSERT INTO price_bars (asset_type, symbol, resolution, bucket_start, open, high, low, close)
+            SELECT asset_type, symbol, ?, date_trunc(?, recorded_at),
+                   (array_agg(price ORDER BY recorded_at))[1], MAX(price), MIN(price),
+                   (array_agg(price ORDER BY recorded_at DESC))[1]
+            FROM price_history
+            WHERE recorded_at >= ?
+            GROUP BY 1, 2, 4
+            ON CONFLICT (asset_type, symbol, resolution, bucket_start) DO UPDATE
+            SET open = EXCLUDED.open, high = EXCLUDED.high, low = EXCLUDED.low, close = EXCLUDED.close""";
+    private static final String ROLLUP_FROM_BARS_SQL = """
+            INSERT INTO price_bars (asset_type, symbol, resolution, bucket_start, open, high, low, close)
+            SELECT asset_type, symbol, ?, date_trunc(?, bucket_start),
+                   (array_agg(open ORDER BY bucket_start))[1], MAX(high), MIN(low),
+                   (array_agg(close ORDER BY bucket_start DESC))[1]
+            FROM price_bars
+            WHERE resolution = ? AND bucket_start >= ?
+            GROUP BY 1, 2, 4
+            ON CONFLICT (asset_type, symbol, resolution, bucket_start) DO UPDATE
+            SET open = EXCLUDED.open, high = EXCLUDED.high, low = EXCLUDED.low, close = EXCLUDED.close""";
+    private static final String DELETE_EXPIRED_BARS_SQL =
+            "DELETE FROM price_bars WHERE resolution = ? AND bucket_start < ?";
+    private static final String FIND_BARS_SQL = """
+            SELECT bucket_start, open, high, low, close
+            FROM price_bars
+            WHERE asset_type = ? AND symbol = ? AND resolution = ? AND bucket_start >= ? AND bucket_start < ?
+            ORDER BY bucket_start""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int partitionsAheadDays;
+    private final Duration rollupLag;
+    private final Duration rawRetention;
+    private final Map<Resolution, Duration> barRetention;
+
+    public enum Resolution {
+        MINUTE("1m", "minute", ChronoUnit.MINUTES),
+        HOUR("1h", "hour", ChronoUnit.HOURS),
+        DAY("1d", "day", ChronoUnit.DAYS);
+
+        private final String label;
+        private final String truncateUnit;
+        private final ChronoUnit unit;
+        private final Duration width;
+
+        Resolution(String label, String truncateUnit, ChronoUnit unit) {
+            this.label = label;
+            this.truncateUnit = truncateUnit;
+            this.unit = unit;
+            this.width = unit.getDuration();
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static Resolution fromLabel(String label) {
+            return Arrays.stream(values())
+                    .filter(resolution -> resolution.label.equals(label))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidRequestException("Unsupported resolution: " + label
+                            + " (expected one of " + Arrays.stream(values()).map(Resolution::getLabel).toList() + ")"));
+        }
+    }
+
+    public PriceHistoryService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${price-history.partitions-ahead-days:3}") int partitionsAheadDays,
+            @Value("${price-history.rollup-lag:PT5M}") Duration rollupLag,
+            @Value("${price-history.retention.raw:P7D}") Duration rawRetention,
+            @Value("${price-history.retention.minute-bars:P30D}") Duration minuteRetention,
+            @Value("${price-history.retention.hour-bars:P730D}") Duration hourRetention,
+            @Value("${price-history.retention.day-bars:P3650D}") Duration dayRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionsAheadDays = partitionsAheadDays;
+        this.rollupLag = rollupLag;
+        this.rawRetention = rawRetention;
+        this.barRetention = Map.of(
+                Resolution.MINUTE, minuteRetention,
+                Resolution.HOUR, hourRetention,
+                Resolution.DAY, dayRetention);
+    }
+
+    @PostConstruct
+    public void createPartitions() {
+        LocalDate today = LocalDate.now();
+        for (int day = -1; day <= partitionsAheadDays; day++) {
+            LocalDate from = today.plusDays(day);
+            String partition = PARTITION_PREFIX + from.format(PARTITION_SUFFIX);
+            try {
+                jdbcTemplate.execute(CREATE_PARTITION_SQL.formatted(partition, from, from.plusDays(1)));
+            } catch (Exception e) {
+                log.warn("Could not create price history partition {}: {}", partition, e.getMessage());
+            }
+        }
+    }
+
+    public void append(AssetType assetType, String[] symbols, BigDecimal[] prices, Timestamp[] recordedAts) {
+        jdbcTemplate.update(APPEND_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setString(1, assetType.name());
+            ps.setArray(2, connection.createArrayOf("varchar", symbols));
+            ps.setArray(3, connection.createArrayOf("numeric", prices));
+            ps.setArray(4, connection.createArrayOf("timestamp", recordedAts));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${price-history.rollup-interval-ms:60000}",
+            initialDelayString = "${price-history.rollup-interval-ms:60000}")
+    public void rollUp() {
+        long startedAt = System.currentTimeMillis();
+        int minuteBars = jdbcTemplate.update(ROLLUP_FROM_HISTORY_SQL,
+                Resolution.MINUTE.label, Resolution.MINUTE.truncateUnit, rollUpFrom(Resolution.MINUTE));
+        int hourBars = rollUp(Resolution.MINUTE, Resolution.HOUR);
+        int dayBars = rollUp(Resolution.HOUR, Resolution.DAY);
+        log.debug("Rolled up {} minute, {} hour and {} day price bars in {} ms",
+                minuteBars, hourBars, dayBars, System.currentTimeMillis() - startedAt);
+    }
+
+    @Scheduled(cron = "${price-history.maintenance-cron:0 15 0 * * *}")
+    public void applyRetention() {
+        createPartitions();
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime rawCutoff = now.minus(rawRetention);
+        for (String partition : jdbcTemplate.queryForList(FIND_PARTITIONS_SQL, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (matcher.matches() && !partitionEnd(matcher.group(1)).isAfter(rawCutoff)) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped expired price history partition {}", partition);
+            }
+        }
+        jdbcTemplate.update(DELETE_EXPIRED_DEFAULT_SQL, Timestamp.valueOf(rawCutoff));
+
+        barRetention.forEach((resolution, retention) -> {
+            int deleted = jdbcTemplate.update(DELETE_EXPIRED_BARS_SQL,
+                    resolution.label, Timestamp.valueOf(now.minus(retention)));
+            if (deleted > 0) {
+                log.info("Deleted {} expired {} price bars", deleted, resolution.label);
+            }
+        });
+    }
+
+    public PriceBarsResponse getBars(AssetType assetType, String symbol, LocalDateTime from, LocalDateTime to,
+                                     Resolution resolution, int maxPoints) {
+        if (!from.isBefore(to)) {
+            throw new InvalidRequestException("'from' must be before 'to'");
+        }
+        Resolution selected = resolution != null
+                ? resolution
+                : selectResolution(from, to, Math.clamp(maxPoints, 1, MAX_POINTS));
+        if (Duration.between(from, to).dividedBy(selected.width) > MAX_POINTS) {
+            throw new InvalidRequestException("Range spans more than " + MAX_POINTS + " " + selected.label
+                    + " bars; narrow the range or use a coarser resolution");
+        }
+        List<PriceBarsResponse.PriceBar> bars = jdbcTemplate.query(FIND_BARS_SQL,
+                (rs, rowNum) -> new PriceBarsResponse.PriceBar(
+                        rs.getTimestamp("bucket_start").toLocalDateTime(),
+                        rs.getBigDecimal("open"),
+                        rs.getBigDecimal("high"),
+                        rs.getBigDecimal("low"),
+                        rs.getBigDecimal("close")),
+                assetType.name(), symbol, selected.label, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return new PriceBarsResponse(assetType, symbol, selected.label, bars);
+    }
+
+    Resolution selectResolution(LocalDateTime from, LocalDateTime to, int maxPoints) {
+        Duration range = Duration.between(from, to);
+        LocalDateTime now = LocalDateTime.now();
+        for (Resolution resolution : Resolution.values()) {
+            boolean fitsPoints = range.dividedBy(resolution.width) <= maxPoints;
+            boolean retained = !from.isBefore(now.minus(barRetention.get(resolution)));
+            if (fitsPoints && retained) {
+                return resolution;
+            }
+        }
+        return Resolution.DAY;
+    }
+
+    private int rollUp(Resolution source, Resolution target) {
+        return jdbcTemplate.update(ROLLUP_FROM_BARS_SQL,
+                target.label, target.truncateUnit, source.label, rollUpFrom(target));
+    }
+
+    private LocalDateTime partitionEnd(String partitionSuffix) {
+        return LocalDate.parse(partitionSuffix, PARTITION_SUFFIX).plusDays(1).atStartOfDay();
+    }
+
+    /**
+     * Ticks are written behind and quotes carry the time they were observed, so a tick can land in a bucket that is
+     * already older than the newest bar. Each pass re-aggregates whole buckets from the lag window before the newest
+     * bar so late ticks are folded into the bars they belong to.
+     */
+    private Timestamp rollUpFrom(Resolution resolution) {
+        Timestamp lastBarStart = jdbcTemplate.queryForObject(LAST_BAR_SQL, Timestamp.class, resolution.label);
+        if (lastBarStart == null) {
+            return BEGINNING_OF_HISTORY;
+        }
+        return Timestamp.valueOf(lastBarStart.toLocalDateTime().minus(rollupLag).truncatedTo(resolution.unit));
+    }
+}
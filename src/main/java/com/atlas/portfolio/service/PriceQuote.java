@@ -0,0 +1,19 @@
+package com.atlas.portfolio.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A price with the time it was observed. A stale quote is a last known price served while the provider is
+ * unavailable; it must not be written back as a fresh price.
+ */
+public record PriceQuote(BigDecimal price, LocalDateTime updatedAt, boolean stale) {
+
+    public static PriceQuote fresh(BigDecimal price, LocalDateTime updatedAt) {
+        return new PriceQuote(price, updatedAt, false);
+    }
+
+    public PriceQuote asStale() {
+        return new PriceQuote(price, updatedAt, true);
+    }
+}
@@ -1,21 +1,30 @@
 package com.atlas.portfolio.service;
 
-import com.atlas.portfolio.entity.Asset;
+import com.atlas.portfolio.dto.response.PriceRefreshJobResponse;
+import com.atlas.portfolio.entity.enums.AssetType;
 import com.atlas.portfolio.exception.ResourceNotFoundException;
 import com.atlas.portfolio.repository.AssetRepository;
 import com.atlas.portfolio.repository.PortfolioRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 @Service
 @Slf4j
@@ -28,81 +37,257 @@ public class PriceRefreshService {
     private final AssetRepository assetRepository;
     private final StockPriceService stockPriceService;
     private final ExchangeRateService exchangeRateService;
-    private final JdbcTemplate jdbcTemplate;
+    private final AssetPriceWriter assetPriceWriter;
     private final Executor priceRefreshExecutor;
 
-    @Transactional
-    public void refreshPortfolioPrices(Long portfolioId, Long userId) {
+    @Value("${price-refresh.global.enabled:true}")
+    private boolean globalRefreshEnabled;
+
+    @Value("${price-refresh.jobs.retention:PT1H}")
+    private Duration jobRetention;
+
+    private final Map<String, RefreshJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, RefreshJob> runningJobs = new ConcurrentHashMap<>();
+
+    /**
+     * Refreshes the quotes for the symbols and currencies held in one portfolio. A quote is the price of a symbol,
+     * not of a holding, so fetched prices are written to every portfolio holding that symbol, exactly as the global
+     * refresh does. This keeps one current price per symbol and lets the aggregates and price history move by
+     * symbol.
+     */
+    public PriceRefreshJobResponse startPortfolioRefresh(Long portfolioId, Long userId) {
         if (!portfolioRepository.existsByIdAndUserId(portfolioId, userId)) {
             throw new ResourceNotFoundException("Portfolio not found with id: " + portfolioId);
         }
 
-        List<Asset> assets = assetRepository.findByPortfolioId(portfolioId);
+        List<String> symbols = assetRepository.findDistinctSymbolsByPortfolioIdAndAssetType(
+                portfolioId, AssetType.STOCK);
+        List<String> currencies = assetRepository.findDistinctCurrenciesByPortfolioIdAndAssetType(
+                portfolioId, AssetType.CASH);
+
+        RefreshJob job = new RefreshJob(portfolioId, userId, symbols, currencies);
+        RefreshJob running = runningJobs.putIfAbsent(portfolioId, job);
+        if (running != null) {
+            log.info("Price refresh job {} is already running for portfolio {}", running.id, portfolioId);
+            return running.toResponse();
+        }
+        jobs.put(job.id, job);
+
+        log.info("Started price refresh job {} for {} stock symbols and {} cash currencies in portfolio {}",
+                job.id, symbols.size(), currencies.size(), portfolioId);
+
+        Map<String, PriceQuote> stockPrices = new ConcurrentHashMap<>();
+        Map<String, PriceQuote> cashRates = new ConcurrentHashMap<>();
+
+        List<CompletableFuture<PriceQuote>> futures = new ArrayList<>(symbols.size() + currencies.size());
+        symbols.forEach(symbol -> futures.add(fetchPrice(symbol, stockPriceService::fetchStockQuote, stockPrices)
+                .whenComplete((quote, e) -> job.record(AssetType.STOCK, symbol, quote, e))));
+        currencies.forEach(currency -> futures.add(fetchPrice(currency, this::fetchCashRate, cashRates)
+                .whenComplete((quote, e) -> job.record(AssetType.CASH, currency, quote, e))));
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((ignored, fetchFailure) -> {
+            try {
+                writePrices(stockPrices, cashRates);
+                job.complete(null);
+            } catch (Exception e) {
+                log.error("Price refresh job {} failed to write prices: {}", job.id, e.getMessage());
+                job.complete(e);
+            } finally {
+                runningJobs.remove(portfolioId, job);
+            }
+            log.info("Finished price refresh job {} for portfolio {}: {}", job.id, portfolioId, job.status);
+        });
+
+        return job.toResponse();
+    }
+
+    public PriceRefreshJobResponse getRefreshJob(Long portfolioId, String jobId, Long userId) {
+        RefreshJob job = jobs.get(jobId);
+        if (job == null || !job.portfolioId.equals(portfolioId) || !job.userId.equals(userId)) {
+            throw new ResourceNotFoundException("Price refresh job not found with id: " + jobId);
+        }
+        return job.toResponse();
+    }
+
+    @Scheduled(fixedDelayString = "${price-refresh.global.interval-ms:900000}",
+            initialDelayString = "${price-refresh.global.initial-delay-ms:60000}")
+    public void refreshAllPrices() {
+        if (!globalRefreshEnabled) {
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        List<String> symbols = assetRepository.findDistinctSymbolsByAssetType(AssetType.STOCK);
+        List<String> currencies = assetRepository.findDistinctCurrenciesByAssetType(AssetType.CASH);
 
-        if (assets.isEmpty()) {
-            log.info("No assets found in portfolio {}", portfolioId);
+        if (symbols.isEmpty() && currencies.isEmpty()) {
+            log.info("No assets found for global price refresh");
             return;
         }
 
-        log.info("Refreshing prices for {} assets in portfolio {}", assets.size(), portfolioId);
+        log.info("Starting global price refresh for {} stock symbols and {} cash currencies",
+                symbols.size(), currencies.size());
 
-        List<Object[]> batchArgs = Collections.synchronizedList(new ArrayList<>());
+        Map<String, PriceQuote> stockPrices = new ConcurrentHashMap<>();
+        Map<String, PriceQuote> cashRates = new ConcurrentHashMap<>();
 
-        List<CompletableFuture<Void>> futures = assets.stream()
-                .map(asset -> this.refreshAssetPrice(asset, batchArgs))
-                .toList();
+        List<CompletableFuture<PriceQuote>> futures = new ArrayList<>(symbols.size() + currencies.size());
+        symbols.forEach(symbol -> futures.add(
+                fetchPrice(symbol, stockPriceService::fetchStockQuote, stockPrices).exceptionally(e -> null)));
+        currencies.forEach(currency -> futures.add(
+                fetchPrice(currency, this::fetchCashRate, cashRates).exceptionally(e -> null)));
 
         CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
 
-        if (!batchArgs.isEmpty()) {
-            String sql = "UPDATE assets SET current_price = ?, price_updated_at = NOW() WHERE id = ?";
-            int[] updateCounts = jdbcTemplate.batchUpdate(sql, batchArgs);
-            log.info("Bulk updated {} asset prices", updateCounts.length);
-        }
+        int written = writePrices(stockPrices, cashRates);
 
-        log.info("Finished refreshing prices for portfolio {}", portfolioId);
+        log.info("Finished global price refresh: {}/{} symbols and {}/{} currencies fetched, {} stale, in {} ms",
+                stockPrices.size(), symbols.size(), cashRates.size(), currencies.size(),
+                stockPrices.size() + cashRates.size() - written, System.currentTimeMillis() - startedAt);
     }
 
-    private CompletableFuture<Void> refreshAssetPrice(Asset asset, List<Object[]> batchArgs) {
-        return switch (asset.getAssetType()) {
-            case STOCK -> fetchStockPrice(asset, batchArgs);
-            case CASH -> updateCashPrice(asset, batchArgs);
-            default -> {
-                log.warn("Price refresh not supported for asset type: {} ({})",
-                        asset.getAssetType(), asset.getSymbol());
-                yield CompletableFuture.completedFuture(null);
-            }
-        };
+    private PriceQuote fetchCashRate(String currency) {
+        return PriceQuote.fresh(exchangeRateService.getRate(currency, DEFAULT_CURRENCY), LocalDateTime.now());
     }
 
-    private CompletableFuture<Void> fetchStockPrice(Asset asset, List<Object[]> batchArgs) {
-        return CompletableFuture.runAsync(() -> {
+    private CompletableFuture<PriceQuote> fetchPrice(String key,
+                                                     Function<String, PriceQuote> priceFetcher,
+                                                     Map<String, PriceQuote> prices) {
+        return CompletableFuture.supplyAsync(() -> {
             try {
-                BigDecimal price = stockPriceService.fetchStockPrice(asset.getSymbol());
-                batchArgs.add(new Object[]{price, asset.getId()});
-                log.info("Fetched price for {} ({}): {}",
-                        asset.getSymbol(), asset.getAssetType(), price);
+                PriceQuote quote = priceFetcher.apply(key);
+                prices.put(key, quote);
+                log.info("Fetched price for {}: {}{}", key, quote.price(), quote.stale() ? " (stale)" : "");
+                return quote;
             } catch (Exception e) {
-                log.error("Failed to fetch price for {} ({}) after all retries: {}",
-                        asset.getSymbol(), asset.getAssetType(), e.getMessage());
+                log.error("Failed to fetch price for {} after all retries: {}", key, e.getMessage());
                 throw e;
             }
         }, priceRefreshExecutor);
     }
 
-    private CompletableFuture<Void> updateCashPrice(Asset asset, List<Object[]> batchArgs) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                BigDecimal rate = exchangeRateService.getRate(
-                        asset.getCurrency(),
-                        DEFAULT_CURRENCY);
-                batchArgs.add(new Object[]{rate, asset.getId()});
-                log.info("Updated rate for {} (CASH): {}", asset.getSymbol(), rate);
-            } catch (Exception e) {
-                log.error("Failed to fetch price for {} ({}) after all retries: {}",
-                        asset.getSymbol(), asset.getAssetType(), e.getMessage());
-                throw e;
+    /**
+     * Writes fresh quotes at the time they were observed. Stale quotes are last known prices that are already
+     * stored, so they are skipped rather than re-stamped as new ticks.
+     */
+    private int writePrices(Map<String, PriceQuote> stockPrices, Map<String, PriceQuote> cashRates) {
+        int[] written = new int[1];
+        stockPrices.forEach((symbol, quote) -> {
+            if (!quote.stale()) {
+                assetPriceWriter.enqueueStockPrice(symbol, quote.price(), quote.updatedAt());
+                written[0]++;
             }
-        }, priceRefreshExecutor);
+        });
+        cashRates.forEach((currency, quote) -> {
+            if (!quote.stale()) {
+                assetPriceWriter.enqueueCashRate(currency, quote.price(), quote.updatedAt());
+                written[0]++;
+            }
+        });
+        assetPriceWriter.flush();
+        return written[0];
+    }
+
+    @Scheduled(fixedDelayString = "${price-refresh.jobs.purge-interval-ms:60000}")
+    public void purgeExpiredJobs() {
+        int purged = purgeJobsCompletedBefore(LocalDateTime.now().minus(jobRetention));
+        if (purged > 0) {
+            log.debug("Purged {} price refresh jobs completed more than {} ago", purged, jobRetention);
+        }
+    }
+
+    int purgeJobsCompletedBefore(LocalDateTime expiredBefore) {
+        int sizeBefore = jobs.size();
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(expiredBefore));
+        return sizeBefore - jobs.size();
+    }
+
+    public enum RefreshJobStatus {
+        RUNNING,
+        COMPLETED,
+        COMPLETED_WITH_ERRORS,
+        FAILED
+    }
+
+    public enum PriceResultStatus {
+        PENDING,
+        SUCCEEDED,
+        STALE,
+        FAILED
+    }
+
+    private static final class RefreshJob {
+
+        private final String id = UUID.randomUUID().toString();
+        private final Long portfolioId;
+        private final Long userId;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final Map<AssetType, Map<String, PriceResult>> results = new EnumMap<>(AssetType.class);
+        private volatile RefreshJobStatus status = RefreshJobStatus.RUNNING;
+        private volatile LocalDateTime completedAt;
+
+        private RefreshJob(Long portfolioId, Long userId, List<String> symbols, List<String> currencies) {
+            this.portfolioId = portfolioId;
+            this.userId = userId;
+            results.put(AssetType.STOCK, pending(symbols));
+            results.put(AssetType.CASH, pending(currencies));
+        }
+
+        private static Map<String, PriceResult> pending(List<String> keys) {
+            Map<String, PriceResult> pending = new ConcurrentHashMap<>();
+            keys.forEach(key -> pending.put(key, new PriceResult(PriceResultStatus.PENDING, null, null)));
+            return pending;
+        }
+
+        private void record(AssetType assetType, String key, PriceQuote quote, Throwable failure) {
+            PriceResult result;
+            if (failure != null) {
+                result = new PriceResult(PriceResultStatus.FAILED, null, rootCause(failure).getMessage());
+            } else if (quote.stale()) {
+                result = new PriceResult(PriceResultStatus.STALE, quote.price(),
+                        "Quote provider unavailable, last known price from " + quote.updatedAt());
+            } else {
+                result = new PriceResult(PriceResultStatus.SUCCEEDED, quote.price(), null);
+            }
+            results.get(assetType).put(key, result);
+        }
+
+        private void complete(Exception writeFailure) {
+            boolean anyFailed = results.values().stream()
+                    .flatMap(byKey -> byKey.values().stream())
+                    .anyMatch(result -> result.status() == PriceResultStatus.FAILED
+                            || result.status() == PriceResultStatus.STALE);
+            completedAt = LocalDateTime.now();
+            status = writeFailure != null
+                    ? RefreshJobStatus.FAILED
+                    : anyFailed ? RefreshJobStatus.COMPLETED_WITH_ERRORS : RefreshJobStatus.COMPLETED;
+        }
+
+        private PriceRefreshJobResponse toResponse() {
+            List<PriceRefreshJobResponse.PriceResult> priceResults = new ArrayList<>();
+            int succeeded = 0;
+            int failed = 0;
+            for (Map.Entry<AssetType, Map<String, PriceResult>> byType : results.entrySet()) {
+                for (Map.Entry<String, PriceResult> entry : new TreeMap<>(byType.getValue()).entrySet()) {
+                    PriceResult result = entry.getValue();
+                    succeeded += result.status() == PriceResultStatus.SUCCEEDED ? 1 : 0;
+                    failed += result.status() == PriceResultStatus.FAILED ? 1 : 0;
+                    priceResults.add(new PriceRefreshJobResponse.PriceResult(
+                            byType.getKey().name(), entry.getKey(), result.status().name(),
+                            result.price(), result.error()));
+                }
+            }
+            return new PriceRefreshJobResponse(id, portfolioId, status.name(), submittedAt, completedAt,
+                    priceResults.size(), succeeded, failed, priceResults);
+        }
+
+        private static Throwable rootCause(Throwable failure) {
+            return failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure;
+        }
+    }
+
+    private record PriceResult(PriceResultStatus status, BigDecimal price, String error) {
     }
 }
@@ -0,0 +1,74 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.repository.AssetRepository;
+import com.atlas.portfolio.service.external.PriceTick;
+import com.atlas.portfolio.service.external.QuoteStreamSource;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "price-stream.enabled", havingValue = "true")
+public class PriceStreamService {
+
+    private final QuoteStreamSource quoteStreamSource;
+    private final PriceBook priceBook;
+    private final AssetRepository assetRepository;
+    private final AssetPriceWriter assetPriceWriter;
+
+    private final Set<String> subscribedSymbols = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        log.info("Starting price stream ingestion");
+        quoteStreamSource.connect(this::onTick);
+        syncSubscriptions();
+    }
+
+    @PreDestroy
+    public void stop() {
+        quoteStreamSource.disconnect();
+    }
+
+    @Scheduled(fixedDelayString = "${price-stream.subscription-sync-interval-ms:60000}",
+            initialDelayString = "${price-stream.subscription-sync-interval-ms:60000}")
+    public void syncSubscriptions() {
+        Set<String> heldSymbols = new HashSet<>(assetRepository.findDistinctSymbolsByAssetType(AssetType.STOCK));
+
+        heldSymbols.stream()
+                .filter(subscribedSymbols::add)
+                .forEach(quoteStreamSource::subscribe);
+
+        subscribedSymbols.stream()
+                .filter(symbol -> !heldSymbols.contains(symbol))
+                .toList()
+                .forEach(symbol -> {
+                    subscribedSymbols.remove(symbol);
+                    quoteStreamSource.unsubscribe(symbol);
+                });
+
+        log.debug("Subscribed to {} symbols on the price stream", subscribedSymbols.size());
+    }
+
+    void onTick(PriceTick tick) {
+        LocalDateTime updatedAt = LocalDateTime.ofInstant(tick.timestamp(), ZoneId.systemDefault());
+        if (priceBook.update(tick.symbol(), tick.price(), updatedAt)) {
+            priceBook.getQuote(tick.symbol()).ifPresent(quote ->
+                    assetPriceWriter.enqueueStockPrice(tick.symbol(), quote.price(), quote.updatedAt()));
+        }
+    }
+}
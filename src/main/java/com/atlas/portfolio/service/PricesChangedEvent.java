@@ -0,0 +1,6 @@
+package com.atlas.portfolio.service;
+
+import java.util.Set;
+
+public record PricesChangedEvent(Set<String> stockSymbols, Set<String> cashCurrencies) {
+}
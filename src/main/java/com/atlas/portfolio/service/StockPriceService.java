@@ -1,27 +1,171 @@
 package com.atlas.portfolio.service;
 
 import com.atlas.portfolio.service.external.FinnhubApiClient;
-import lombok.RequiredArgsConstructor;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class StockPriceService {
 
+    private static final String QUOTE_CACHE_METRIC = "quote.cache.requests";
+
     private final FinnhubApiClient finnhubApiClient;
+    private final PriceBook priceBook;
+    private final Duration priceBookMaxAge;
+    private final long quoteTtlMillis;
+    private final int maxCachedQuotes;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, CachedQuote> quoteCache = new ConcurrentHashMap<>();
+
+    private final Counter priceBookHits;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter cacheCoalesced;
+    private final Counter lastKnownFallbacks;
+
+    @Autowired
+    public StockPriceService(
+            FinnhubApiClient finnhubApiClient,
+            PriceBook priceBook,
+            MeterRegistry meterRegistry,
+            @Value("${price-book.max-age:PT1M}") Duration priceBookMaxAge,
+            @Value("${finnhub.quote-cache.ttl:PT30S}") Duration quoteTtl,
+            @Value("${finnhub.quote-cache.max-size:10000}") int maxCachedQuotes) {
+        this(finnhubApiClient, priceBook, meterRegistry, priceBookMaxAge, quoteTtl, maxCachedQuotes,
+                Clock.systemDefaultZone());
+    }
 
-    public BigDecimal fetchStockPrice(String symbol) {
+    StockPriceService(FinnhubApiClient finnhubApiClient, PriceBook priceBook, MeterRegistry meterRegistry,
+                      Duration priceBookMaxAge, Duration quoteTtl, int maxCachedQuotes, Clock clock) {
+        this.finnhubApiClient = finnhubApiClient;
+        this.priceBook = priceBook;
+        this.priceBookMaxAge = priceBookMaxAge;
+        this.quoteTtlMillis = quoteTtl.toMillis();
+        this.maxCachedQuotes = maxCachedQuotes;
+        this.clock = clock;
+        this.priceBookHits = meterRegistry.counter(QUOTE_CACHE_METRIC, "result", "price-book");
+        this.cacheHits = meterRegistry.counter(QUOTE_CACHE_METRIC, "result", "hit");
+        this.cacheMisses = meterRegistry.counter(QUOTE_CACHE_METRIC, "result", "miss");
+        this.cacheCoalesced = meterRegistry.counter(QUOTE_CACHE_METRIC, "result", "coalesced");
+        this.lastKnownFallbacks = meterRegistry.counter(QUOTE_CACHE_METRIC, "result", "last-known");
+        meterRegistry.gaugeMapSize("quote.cache.size", Tags.empty(), quoteCache);
+    }
+
+    public PriceQuote fetchStockQuote(String symbol) {
         log.debug("Fetching stock price for symbol: {}", symbol);
 
+        Optional<PriceBook.Quote> streamed = priceBook.getQuote(symbol, LocalDateTime.now(clock).minus(priceBookMaxAge));
+        if (streamed.isPresent()) {
+            priceBookHits.increment();
+            return PriceQuote.fresh(streamed.get().price(), streamed.get().updatedAt());
+        }
+
+        CachedQuote pending = new CachedQuote();
+        long now = clock.millis();
+        CachedQuote cached = quoteCache.compute(symbol, (key, existing) -> {
+            if (existing != null && !existing.isExpired(now)) {
+                return existing;
+            }
+            pending.lastKnownQuote = existing != null ? existing.lastKnownQuote() : null;
+            return pending;
+        });
+
+        if (cached == pending) {
+            cacheMisses.increment();
+            evictIfFull();
+            loadQuote(symbol, pending);
+        } else if (cached.quote.isDone()) {
+            cacheHits.increment();
+        } else {
+            cacheCoalesced.increment();
+        }
+
+        try {
+            return cached.quote.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Failed to fetch stock price for {}: {}", symbol, cause.getMessage());
+            throw new RuntimeException("Failed to fetch stock price for " + symbol, cause);
+        }
+    }
+
+    private void loadQuote(String symbol, CachedQuote pending) {
         try {
-            return finnhubApiClient.fetchQuote(symbol);
+            BigDecimal price = finnhubApiClient.fetchQuote(symbol);
+            pending.expiresAt = clock.millis() + quoteTtlMillis;
+            pending.quote.complete(PriceQuote.fresh(price, LocalDateTime.now(clock)));
         } catch (Exception e) {
-            log.error("Failed to fetch stock price for {}: {}", symbol, e.getMessage());
-            throw new RuntimeException("Failed to fetch stock price for " + symbol, e);
+            PriceQuote lastKnownQuote = e instanceof CallNotPermittedException ? lastKnownQuote(symbol, pending) : null;
+            pending.expiresAt = clock.millis();
+            if (lastKnownQuote != null) {
+                lastKnownFallbacks.increment();
+                log.warn("Quote provider is unavailable, using last known price for {} from {}",
+                        symbol, lastKnownQuote.updatedAt());
+                pending.quote.complete(lastKnownQuote);
+                return;
+            }
+            // A failed entry that carries a last known quote stays cached so the quote survives until a fetch succeeds
+            if (pending.lastKnownQuote == null) {
+                quoteCache.remove(symbol, pending);
+            }
+            pending.quote.completeExceptionally(e);
+        }
+    }
+
+    private PriceQuote lastKnownQuote(String symbol, CachedQuote pending) {
+        PriceQuote fetched = pending.lastKnownQuote;
+        return priceBook.getQuote(symbol)
+                .map(streamed -> PriceQuote.fresh(streamed.price(), streamed.updatedAt()))
+                .filter(streamed -> fetched == null || streamed.updatedAt().isAfter(fetched.updatedAt()))
+                .or(() -> Optional.ofNullable(fetched))
+                .map(PriceQuote::asStale)
+                .orElse(null);
+    }
+
+    private void evictIfFull() {
+        if (quoteCache.size() <= maxCachedQuotes) {
+            return;
+        }
+
+        long now = clock.millis();
+        quoteCache.values().removeIf(cached -> cached.isExpired(now));
+
+        Iterator<CachedQuote> iterator = quoteCache.values().iterator();
+        while (quoteCache.size() > maxCachedQuotes && iterator.hasNext()) {
+            if (iterator.next().quote.isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class CachedQuote {
+        private final CompletableFuture<PriceQuote> quote = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+        private PriceQuote lastKnownQuote;
+
+        private boolean isExpired(long now) {
+            return quote.isDone() && now - expiresAt >= 0;
+        }
+
+        private PriceQuote lastKnownQuote() {
+            return quote.isDone() && !quote.isCompletedExceptionally() ? quote.join() : lastKnownQuote;
         }
     }
 }
@@ -0,0 +1,112 @@
+package com.atlas.portfolio.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Columnar valuation of asset rows grouped by an externally assigned group id. Quantities and prices are held as
+ * longs scaled by 10^{@value #SCALE} and products are accumulated into 128-bit sums, so a pass over the rows does not
+ * allocate. Totals are returned with the scale {@link BigDecimal#multiply} and {@link BigDecimal#add} would have
+ * produced. Values that do not fit a scaled long or a 128-bit sum throw {@link ArithmeticException}; callers are
+ * expected to fall back to {@link BigDecimal} arithmetic.
+ */
+public final class ValuationKernel {
+
+    public static final int SCALE = 8;
+
+    private static final int PRODUCT_SCALE = SCALE * 2;
+    private static final BigInteger TWO_TO_64 = BigInteger.ONE.shiftLeft(Long.SIZE);
+
+    private final int[] groupIds;
+    private final long[] quantities;
+    private final long[] prices;
+    private final long[] averagePrices;
+    private final boolean[] priced;
+    private final int[] valueScales;
+    private final int[] investedScales;
+    private int size;
+    private int groupCount;
+
+    public ValuationKernel(int capacity) {
+        this.groupIds = new int[capacity];
+        this.quantities = new long[capacity];
+        this.prices = new long[capacity];
+        this.averagePrices = new long[capacity];
+        this.priced = new boolean[capacity];
+        this.valueScales = new int[capacity];
+        this.investedScales = new int[capacity];
+    }
+
+    public void add(int groupId, BigDecimal quantity, BigDecimal price, BigDecimal averagePurchasePrice) {
+        long scaledQuantity = toScaledLong(quantity);
+        long scaledAveragePrice = toScaledLong(averagePurchasePrice);
+        long scaledPrice = price != null ? toScaledLong(price) : 0L;
+
+        int row = size++;
+        groupIds[row] = groupId;
+        quantities[row] = scaledQuantity;
+        averagePrices[row] = scaledAveragePrice;
+        investedScales[groupId] = Math.max(investedScales[groupId], averagePurchasePrice.scale() + quantity.scale());
+        if (price != null) {
+            prices[row] = scaledPrice;
+            priced[row] = true;
+            valueScales[groupId] = Math.max(valueScales[groupId], price.scale() + quantity.scale());
+        }
+        groupCount = Math.max(groupCount, groupId + 1);
+    }
+
+    public GroupTotals[] accumulate() {
+        long[] valueHigh = new long[groupCount];
+        long[] valueLow = new long[groupCount];
+        long[] investedHigh = new long[groupCount];
+        long[] investedLow = new long[groupCount];
+        long[] assetCounts = new long[groupCount];
+        long[] pricedCounts = new long[groupCount];
+
+        for (int row = 0; row < size; row++) {
+            int group = groupIds[row];
+            long quantity = quantities[row];
+            if (priced[row]) {
+                multiplyAdd(valueHigh, valueLow, group, quantity, prices[row]);
+                pricedCounts[group]++;
+            }
+            multiplyAdd(investedHigh, investedLow, group, quantity, averagePrices[row]);
+            assetCounts[group]++;
+        }
+
+        GroupTotals[] totals = new GroupTotals[groupCount];
+        for (int group = 0; group < groupCount; group++) {
+            totals[group] = new GroupTotals(
+                    toBigDecimal(valueHigh[group], valueLow[group], valueScales[group]),
+                    toBigDecimal(investedHigh[group], investedLow[group], investedScales[group]),
+                    assetCounts[group],
+                    pricedCounts[group]);
+        }
+        return totals;
+    }
+
+    private static long toScaledLong(BigDecimal value) {
+        return value.movePointRight(SCALE).longValueExact();
+    }
+
+    private static void multiplyAdd(long[] high, long[] low, int group, long left, long right) {
+        long productLow = left * right;
+        long productHigh = Math.multiplyHigh(left, right);
+        long sumLow = low[group] + productLow;
+        long carry = Long.compareUnsigned(sumLow, productLow) < 0 ? 1L : 0L;
+        high[group] = Math.addExact(Math.addExact(high[group], productHigh), carry);
+        low[group] = sumLow;
+    }
+
+    private static BigDecimal toBigDecimal(long high, long low, int scale) {
+        BigDecimal sum = (high == 0 && low >= 0) || (high == -1 && low < 0)
+                ? BigDecimal.valueOf(low, PRODUCT_SCALE)
+                : new BigDecimal(BigInteger.valueOf(high).multiply(TWO_TO_64)
+                        .add(new BigInteger(Long.toUnsignedString(low))), PRODUCT_SCALE);
+        return sum.setScale(scale, RoundingMode.UNNECESSARY);
+    }
+
+    public record GroupTotals(BigDecimal totalValue, BigDecimal totalInvested, long assetCount, long pricedCount) {
+    }
+}
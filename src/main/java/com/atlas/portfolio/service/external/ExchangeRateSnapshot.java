@@ -0,0 +1,16 @@
+package com.atlas.portfolio.service.external;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+public record ExchangeRateSnapshot(Map<String, BigDecimal> rates, Instant fetchedAt) {
+
+    public ExchangeRateSnapshot {
+        rates = Map.copyOf(rates);
+    }
+
+    public boolean isNewerThan(ExchangeRateSnapshot other) {
+        return other == null || fetchedAt.isAfter(other.fetchedAt);
+    }
+}
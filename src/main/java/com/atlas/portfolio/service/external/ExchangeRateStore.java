@@ -0,0 +1,20 @@
+package com.atlas.portfolio.service.external;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface ExchangeRateStore {
+
+    Optional<ExchangeRateSnapshot> load();
+
+    void save(ExchangeRateSnapshot snapshot);
+
+    boolean tryLockRefresh(String owner, Duration leaseTime);
+
+    void unlockRefresh(String owner);
+
+    void publishInvalidation(String sourceNodeId);
+
+    void subscribeInvalidations(Consumer<String> listener);
+}
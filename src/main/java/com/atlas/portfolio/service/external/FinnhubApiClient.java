@@ -1,51 +1,201 @@
 package com.atlas.portfolio.service.external;
 
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import com.atlas.portfolio.config.AdaptiveConcurrencyLimiter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Component
 @Slf4j
 public class FinnhubApiClient {
 
+    private static final String FINNHUB = "finnhub";
+    private static final String QUOTE_REQUESTS_METRIC = "finnhub.quote.requests";
+
     private final RestClient restClient;
     private final String apiKey;
+    private final boolean hedgingEnabled;
+    private final long hedgeDelayNanos;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final RateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Timer successfulRequests;
+    private final Timer emptyRequests;
+    private final Timer failedRequests;
+    private final Counter hedgedRequests;
 
     public FinnhubApiClient(
             @Value("${finnhub.api.url}") String apiUrl,
-            @Value("${finnhub.api.key}") String apiKey) {
+            @Value("${finnhub.api.key}") String apiKey,
+            @Value("${finnhub.api.timeout:PT5S}") Duration timeout,
+            @Value("${finnhub.hedging.enabled:false}") boolean hedgingEnabled,
+            @Value("${finnhub.hedging.delay:PT0.5S}") Duration hedgeDelay,
+            AdaptiveConcurrencyLimiter finnhubConcurrencyLimiter,
+            RateLimiterRegistry rateLimiterRegistry,
+            RetryRegistry retryRegistry,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry) {
         this.apiKey = apiKey;
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+                HttpClient.newBuilder().connectTimeout(timeout).build());
+        requestFactory.setReadTimeout(timeout);
         this.restClient = RestClient.builder()
                 .baseUrl(apiUrl)
+                .requestFactory(requestFactory)
                 .build();
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgeDelayNanos = hedgeDelay.toNanos();
+        this.concurrencyLimiter = finnhubConcurrencyLimiter;
+        this.rateLimiter = rateLimiterRegistry.rateLimiter(FINNHUB);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(FINNHUB);
+        this.successfulRequests = meterRegistry.timer(QUOTE_REQUESTS_METRIC, "outcome", "success");
+        this.emptyRequests = meterRegistry.timer(QUOTE_REQUESTS_METRIC, "outcome", "no_data");
+        this.failedRequests = meterRegistry.timer(QUOTE_REQUESTS_METRIC, "outcome", "error");
+        this.hedgedRequests = meterRegistry.counter("finnhub.quote.hedges");
+
+        Counter retries = meterRegistry.counter("finnhub.quote.retries");
+        retryRegistry.retry(FINNHUB).getEventPublisher().onRetry(event -> retries.increment());
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Finnhub circuit breaker transitioned {}", event.getStateTransition()));
     }
 
-    @RateLimiter(name = "finnhub")
-    @Retry(name = "finnhub")
+    @io.github.resilience4j.ratelimiter.annotation.RateLimiter(name = FINNHUB)
+    @Retry(name = FINNHUB)
     public BigDecimal fetchQuote(String symbol) {
-        log.info("Fetching quote from Finnhub API for symbol: {}", symbol);
-
-        FinnhubQuoteResponse response = restClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/quote")
-                        .queryParam("symbol", symbol)
-                        .queryParam("token", apiKey)
-                        .build())
-                .retrieve()
-                .body(FinnhubQuoteResponse.class);
-
-        BigDecimal currentPrice = response.getCurrentPrice();
-        if (currentPrice != null) {
-            log.info("Successfully fetched quote for {}: {}", symbol, currentPrice);
-            return currentPrice;
-        } else {
-            log.warn("No quote data available for symbol: {}", symbol);
-            throw new IllegalStateException("No quote data available for symbol: " + symbol);
+        return circuitBreaker.executeSupplier(() -> hedgingEnabled
+                ? fetchHedged(symbol)
+                : requestQuote(symbol, concurrencyLimiter.acquire()));
+    }
+
+    @PreDestroy
+    public void close() {
+        hedgeExecutor.close();
+    }
+
+    /**
+     * Sends a second request when the first has not answered within the hedge delay and returns whichever succeeds
+     * first. The hedge is only sent when the concurrency limit and the rate limiter both have room, so hedging never
+     * adds load while the provider is already pushing back.
+     */
+    private BigDecimal fetchHedged(String symbol) {
+        AdaptiveConcurrencyLimiter.Permit permit = concurrencyLimiter.acquire();
+        CompletableFuture<BigDecimal> primary =
+                CompletableFuture.supplyAsync(() -> requestQuote(symbol, permit), hedgeExecutor);
+        try {
+            return primary.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Quote for {} is slower than the hedge delay", symbol);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching quote for " + symbol, e);
+        }
+
+        Optional<AdaptiveConcurrencyLimiter.Permit> hedgePermit = rateLimiter.getMetrics().getAvailablePermissions() > 0
+                ? concurrencyLimiter.tryAcquire()
+                : Optional.empty();
+        if (hedgePermit.isEmpty()) {
+            return await(primary);
+        }
+
+        hedgedRequests.increment();
+        CompletableFuture<BigDecimal> hedge = CompletableFuture.supplyAsync(RateLimiter.decorateSupplier(
+                rateLimiter, () -> requestQuote(symbol, hedgePermit.get())), hedgeExecutor);
+        CompletableFuture<BigDecimal> first = new CompletableFuture<>();
+        for (CompletableFuture<BigDecimal> attempt : List.of(primary, hedge)) {
+            attempt.whenComplete((price, error) -> {
+                if (error == null) {
+                    first.complete(price);
+                } else if (primary.isCompletedExceptionally() && hedge.isCompletedExceptionally()) {
+                    first.completeExceptionally(error);
+                }
+            });
         }
+        return await(first);
+    }
+
+    private BigDecimal requestQuote(String symbol, AdaptiveConcurrencyLimiter.Permit permit) {
+        Timer outcome = failedRequests;
+        long startedAt = System.nanoTime();
+        try {
+            log.info("Fetching quote from Finnhub API for symbol: {}", symbol);
+            startedAt = System.nanoTime();
+
+            FinnhubQuoteResponse response = restClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/quote")
+                            .queryParam("symbol", symbol)
+                            .queryParam("token", apiKey)
+                            .build())
+                    .retrieve()
+                    .body(FinnhubQuoteResponse.class);
+            permit.onSuccess(System.nanoTime() - startedAt);
+
+            BigDecimal currentPrice = response.getCurrentPrice();
+            if (currentPrice != null) {
+                outcome = successfulRequests;
+                log.info("Successfully fetched quote for {}: {}", symbol, currentPrice);
+                return currentPrice;
+            } else {
+                outcome = emptyRequests;
+                log.warn("No quote data available for symbol: {}", symbol);
+                throw new IllegalStateException("No quote data available for symbol: " + symbol);
+            }
+        } catch (HttpStatusCodeException e) {
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS) || e.getStatusCode().is5xxServerError()) {
+                permit.onDropped();
+            }
+            throw e;
+        } catch (ResourceAccessException e) {
+            permit.onDropped();
+            throw e;
+        } finally {
+            permit.onIgnored();
+            outcome.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static BigDecimal await(CompletableFuture<BigDecimal> quote) {
+        try {
+            return quote.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        return error instanceof RuntimeException runtimeException
+                ? runtimeException
+                : new IllegalStateException(error);
     }
 }
@@ -0,0 +1,178 @@
+package com.atlas.portfolio.service.external;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "price-stream.source", havingValue = "finnhub", matchIfMissing = true)
+@Slf4j
+public class FinnhubWebSocketClient implements QuoteStreamSource, WebSocket.Listener {
+
+    private static final long RECONNECT_DELAY_SECONDS = 5;
+    private static final String SUBSCRIBE = "subscribe";
+    private static final String UNSUBSCRIBE = "unsubscribe";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper;
+    private final URI uri;
+    private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+    private final StringBuilder partialMessage = new StringBuilder();
+
+    private volatile WebSocket webSocket;
+    private volatile Consumer<PriceTick> listener;
+    private volatile boolean running;
+
+    public FinnhubWebSocketClient(
+            ObjectMapper objectMapper,
+            @Value("${finnhub.websocket.url:wss://ws.finnhub.io}") String websocketUrl,
+            @Value("${finnhub.api.key}") String apiKey) {
+        this.objectMapper = objectMapper;
+        this.uri = URI.create(websocketUrl + "?token=" + apiKey);
+    }
+
+    @Override
+    public void connect(Consumer<PriceTick> listener) {
+        this.listener = listener;
+        this.running = true;
+        open();
+    }
+
+    @Override
+    public void subscribe(String symbol) {
+        if (subscriptions.add(symbol)) {
+            send(subscriptionMessage(SUBSCRIBE, symbol));
+        }
+    }
+
+    @Override
+    public void unsubscribe(String symbol) {
+        if (subscriptions.remove(symbol)) {
+            send(subscriptionMessage(UNSUBSCRIBE, symbol));
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        running = false;
+        WebSocket current = webSocket;
+        if (current != null) {
+            current.sendClose(WebSocket.NORMAL_CLOSURE, "shutdown");
+        }
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        log.info("Connected to Finnhub trade stream, resubscribing {} symbols", subscriptions.size());
+        this.webSocket = webSocket;
+        subscriptions.forEach(symbol -> send(subscriptionMessage(SUBSCRIBE, symbol)));
+        webSocket.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        partialMessage.append(data);
+        if (last) {
+            handleMessage(partialMessage.toString());
+            partialMessage.setLength(0);
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        log.warn("Finnhub trade stream closed ({}): {}", statusCode, reason);
+        scheduleReconnect();
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        log.error("Finnhub trade stream error: {}", error.getMessage());
+        scheduleReconnect();
+    }
+
+    private void open() {
+        httpClient.newWebSocketBuilder()
+                .buildAsync(uri, this)
+                .exceptionally(e -> {
+                    log.error("Failed to connect to Finnhub trade stream: {}", e.getMessage());
+                    scheduleReconnect();
+                    return null;
+                });
+    }
+
+    private void scheduleReconnect() {
+        webSocket = null;
+        if (running) {
+            CompletableFuture.delayedExecutor(RECONNECT_DELAY_SECONDS, TimeUnit.SECONDS).execute(this::open);
+        }
+    }
+
+    String subscriptionMessage(String type, String symbol) {
+        try {
+            return objectMapper.writeValueAsString(new SubscriptionMessage(type, symbol));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize Finnhub " + type + " message", e);
+        }
+    }
+
+    private synchronized void send(String message) {
+        WebSocket current = webSocket;
+        if (current == null) {
+            return;
+        }
+
+        try {
+            current.sendText(message, true).join();
+        } catch (Exception e) {
+            log.warn("Failed to send message to Finnhub trade stream: {}", e.getMessage());
+        }
+    }
+
+    private void handleMessage(String message) {
+        Consumer<PriceTick> currentListener = listener;
+        if (currentListener == null) {
+            return;
+        }
+
+        try {
+            JsonNode root = objectMapper.readTree(message);
+            if (!"trade".equals(root.path("type").asText())) {
+                return;
+            }
+
+            for (JsonNode trade : root.path("data")) {
+                currentListener.accept(new PriceTick(
+                        trade.path("s").asText(),
+                        new BigDecimal(trade.path("p").asText()),
+                        Instant.ofEpochMilli(trade.path("t").asLong())));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to parse Finnhub trade message: {}", e.getMessage());
+        }
+    }
+
+    private record SubscriptionMessage(String type, String symbol) {
+    }
+}
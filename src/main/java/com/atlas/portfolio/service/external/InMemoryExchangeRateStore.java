@@ -0,0 +1,58 @@
+package com.atlas.portfolio.service.external;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "exchange-rates.store", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryExchangeRateStore implements ExchangeRateStore {
+
+    private final AtomicReference<ExchangeRateSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicReference<Lease> refreshLease = new AtomicReference<>();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Optional<ExchangeRateSnapshot> load() {
+        return Optional.ofNullable(snapshot.get());
+    }
+
+    @Override
+    public void save(ExchangeRateSnapshot snapshot) {
+        this.snapshot.set(snapshot);
+    }
+
+    @Override
+    public boolean tryLockRefresh(String owner, Duration leaseTime) {
+        long now = System.nanoTime();
+        Lease current = refreshLease.get();
+        if (current != null && current.expiresAt() - now > 0) {
+            return false;
+        }
+        return refreshLease.compareAndSet(current, new Lease(owner, now + leaseTime.toNanos()));
+    }
+
+    @Override
+    public void unlockRefresh(String owner) {
+        refreshLease.updateAndGet(lease -> lease != null && lease.owner().equals(owner) ? null : lease);
+    }
+
+    @Override
+    public void publishInvalidation(String sourceNodeId) {
+        listeners.forEach(listener -> listener.accept(sourceNodeId));
+    }
+
+    @Override
+    public void subscribeInvalidations(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    private record Lease(String owner, long expiresAt) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.atlas.portfolio.service.external;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "price-stream.source", havingValue = "in-memory")
+@Slf4j
+public class InMemoryQuoteStreamSource implements QuoteStreamSource {
+
+    private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+    private volatile Consumer<PriceTick> listener;
+
+    @Override
+    public void connect(Consumer<PriceTick> listener) {
+        this.listener = listener;
+        log.info("Connected to in-memory quote stream");
+    }
+
+    @Override
+    public void subscribe(String symbol) {
+        subscriptions.add(symbol);
+    }
+
+    @Override
+    public void unsubscribe(String symbol) {
+        subscriptions.remove(symbol);
+    }
+
+    @Override
+    public void disconnect() {
+        listener = null;
+    }
+
+    public void publish(PriceTick tick) {
+        Consumer<PriceTick> currentListener = listener;
+        if (currentListener != null && subscriptions.contains(tick.symbol())) {
+            currentListener.accept(tick);
+        }
+    }
+
+    public Set<String> getSubscriptions() {
+        return Set.copyOf(subscriptions);
+    }
+}
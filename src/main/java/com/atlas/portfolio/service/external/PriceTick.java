@@ -0,0 +1,7 @@
+package com.atlas.portfolio.service.external;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record PriceTick(String symbol, BigDecimal price, Instant timestamp) {
+}
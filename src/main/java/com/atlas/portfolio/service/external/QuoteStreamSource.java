@@ -0,0 +1,14 @@
+package com.atlas.portfolio.service.external;
+
+import java.util.function.Consumer;
+
+public interface QuoteStreamSource {
+
+    void connect(Consumer<PriceTick> listener);
+
+    void subscribe(String symbol);
+
+    void unsubscribe(String symbol);
+
+    void disconnect();
+}
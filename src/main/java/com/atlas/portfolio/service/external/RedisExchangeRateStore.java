@@ -0,0 +1,127 @@
+package com.atlas.portfolio.service.external;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "exchange-rates.store", havingValue = "redis")
+@Slf4j
+public class RedisExchangeRateStore implements ExchangeRateStore {
+
+    private static final String SNAPSHOT_KEY = "exchange-rates:USD";
+    private static final String REFRESH_LOCK_KEY = "exchange-rates:USD:refresh-lock";
+    private static final ChannelTopic INVALIDATION_TOPIC = new ChannelTopic("exchange-rates:invalidations");
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+    private static final long RESUBSCRIBE_DELAY_SECONDS = 30;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer listenerContainer = new RedisMessageListenerContainer();
+
+    private volatile boolean closed;
+
+    public RedisExchangeRateStore(StringRedisTemplate redisTemplate,
+                                  RedisConnectionFactory connectionFactory,
+                                  ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.afterPropertiesSet();
+    }
+
+    @Override
+    public Optional<ExchangeRateSnapshot> load() {
+        try {
+            String json = redisTemplate.opsForValue().get(SNAPSHOT_KEY);
+            return json != null ? Optional.of(objectMapper.readValue(json, ExchangeRateSnapshot.class)) : Optional.empty();
+        } catch (Exception e) {
+            log.warn("Failed to load exchange rates from Redis: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void save(ExchangeRateSnapshot snapshot) {
+        try {
+            redisTemplate.opsForValue().set(SNAPSHOT_KEY, objectMapper.writeValueAsString(snapshot));
+        } catch (Exception e) {
+            log.warn("Failed to save exchange rates to Redis: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean tryLockRefresh(String owner, Duration leaseTime) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(REFRESH_LOCK_KEY, owner, leaseTime));
+        } catch (Exception e) {
+            log.warn("Failed to acquire exchange rate refresh lock, refreshing locally: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public void unlockRefresh(String owner) {
+        try {
+            redisTemplate.execute(UNLOCK_SCRIPT, List.of(REFRESH_LOCK_KEY), owner);
+        } catch (Exception e) {
+            log.warn("Failed to release exchange rate refresh lock: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void publishInvalidation(String sourceNodeId) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_TOPIC.getTopic(), sourceNodeId);
+        } catch (Exception e) {
+            log.warn("Failed to publish exchange rate invalidation: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribeInvalidations(Consumer<String> listener) {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                INVALIDATION_TOPIC);
+        startListening();
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        closed = true;
+        listenerContainer.destroy();
+    }
+
+    private void startListening() {
+        if (closed || listenerContainer.isRunning()) {
+            return;
+        }
+
+        try {
+            listenerContainer.start();
+        } catch (Exception e) {
+            log.warn("Failed to subscribe to exchange rate invalidations, retrying in {}s: {}",
+                    RESUBSCRIBE_DELAY_SECONDS, e.getMessage());
+            CompletableFuture.delayedExecutor(RESUBSCRIBE_DELAY_SECONDS, TimeUnit.SECONDS)
+                    .execute(this::startListening);
+        }
+    }
+}
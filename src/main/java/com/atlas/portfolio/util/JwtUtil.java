@@ -1,24 +1,71 @@
 package com.atlas.portfolio.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    private final JwtParser parser;
+    private final Clock clock;
+    private final int maxCachedTokens;
+    private final ConcurrentHashMap<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.verified-cache.max-size:10000}") int maxCachedTokens) {
+        this(secret, maxCachedTokens, Clock.systemUTC());
+    }
+
+    JwtUtil(String secret, int maxCachedTokens, Clock clock) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .clock(() -> Date.from(clock.instant()))
+                .build();
+        this.clock = clock;
+        this.maxCachedTokens = maxCachedTokens;
+    }
+
+    public Optional<VerifiedToken> verify(String token) {
+        if (maxCachedTokens <= 0) {
+            return parse(token);
+        }
+
+        String digest = digest(token);
+        long now = clock.millis();
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.remove(digest, cached);
+            return Optional.empty();
+        }
+
+        Optional<VerifiedToken> verified = parse(token);
+        verified.ifPresent(verifiedToken -> {
+            evictIfFull(now);
+            verifiedTokens.put(digest, verifiedToken);
+        });
+        return verified;
     }
 
     public String extractUsername(String token) {
@@ -39,22 +86,54 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Boolean validateToken(String token) {
+        return verify(token).isPresent();
     }
 
-    public Boolean validateToken(String token) {
+    private Optional<VerifiedToken> parse(String token) {
         try {
-            return !isTokenExpired(token);
+            Claims claims = extractAllClaims(token);
+            Date expiration = claims.getExpiration();
+            if (expiration == null || expiration.getTime() <= clock.millis()) {
+                return Optional.empty();
+            }
+            return Optional.of(new VerifiedToken(
+                    claims.get("userId", Long.class), claims.getSubject(), expiration.getTime()));
         } catch (Exception e) {
-            return false;
+            return Optional.empty();
+        }
+    }
+
+    private void evictIfFull(long now) {
+        if (verifiedTokens.size() < maxCachedTokens) {
+            return;
+        }
+
+        verifiedTokens.values().removeIf(verifiedToken -> verifiedToken.isExpired(now));
+
+        Iterator<VerifiedToken> iterator = verifiedTokens.values().iterator();
+        while (verifiedTokens.size() >= maxCachedTokens && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private String digest(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance(DIGEST_ALGORITHM)
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    public record VerifiedToken(Long userId, String subject, long expiresAtMillis) {
+
+        private boolean isExpired(long now) {
+            return now >= expiresAtMillis;
         }
     }
 }
@@ -0,0 +1,228 @@
+package com.atlas.portfolio;
+
+import com.atlas.portfolio.dto.request.CreateAssetRequest;
+import com.atlas.portfolio.dto.request.CreatePortfolioRequest;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.service.AssetService;
+import com.atlas.portfolio.service.PortfolioService;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.schema=" + QueryRegressionTest.SCHEMA,
+        "spring.datasource.hikari.connection-init-sql=CREATE SCHEMA IF NOT EXISTS " + QueryRegressionTest.SCHEMA
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryRegressionTest {
+
+    static final String SCHEMA = "query_regression";
+    private static final Long USER_ID = -2L;
+    private static final int PORTFOLIOS = 3;
+    private static final int ASSETS_PER_PORTFOLIO = 4;
+    private static final long PLAN_FIRST_USER_ID = -1_000L;
+    private static final int PLAN_USERS = 2_500;
+    private static final int PLAN_PORTFOLIOS = 5_000;
+    private static final int PLAN_ASSETS_PER_PORTFOLIO = 20;
+    private static final int PLAN_LARGE_PORTFOLIO_ASSETS = 2_000;
+    private static final String ASSETS_BY_PORTFOLIO_INDEXES =
+            "ix_assets_portfolio_id_id|ix_assets_portfolio_id_asset_type_id|ix_assets_portfolio_id_symbol";
+
+    private static final String SEED_PLAN_PORTFOLIOS_SQL = """
+            INSERT INTO portfolios (name, user_id, created_at)
+            SELECT 'Plan ' || g, ? - g % ?, now()
+            FROM generate_series(1, ?) AS g""";
+
+    private static final String SEED_PLAN_ASSETS_SQL = """
+            INSERT INTO assets
+                (portfolio_id, symbol, asset_type, quantity, average_purchase_price, currency, created_at)
+            SELECT p.id,
+                   CASE WHEN a %% 10 = 9 THEN (ARRAY['USD', 'EUR', 'GBP', 'JPY'])[1 + (p.id + a) %% 4]
+                        ELSE 'SYM' || (p.id * 31 + a * 7) %% 1000 END,
+                   CASE a %% 10 WHEN 9 THEN 'CASH' WHEN 8 THEN 'CRYPTO' WHEN 7 THEN 'BOND' WHEN 6 THEN 'ETF'
+                        ELSE 'STOCK' END,
+                   1, 10, 'USD', now()
+            FROM portfolios p
+            CROSS JOIN generate_series(0, ? - 1) AS a
+            WHERE %s
+            ORDER BY p.id, a""";
+
+    private static final String SEED_PLAN_ASSETS_BY_USER_SQL =
+            SEED_PLAN_ASSETS_SQL.formatted("p.user_id BETWEEN ? AND ?");
+    private static final String SEED_PLAN_ASSETS_BY_PORTFOLIO_SQL = SEED_PLAN_ASSETS_SQL.formatted("p.id = ?");
+
+    private static final String TRUNCATE_SQL =
+            "TRUNCATE assets, portfolios, portfolio_aggregates, portfolio_flows, portfolio_snapshots";
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private AssetService assetService;
+
+    private final List<Long> portfolioIds = new ArrayList<>();
+    private Long planPortfolioId;
+
+    @BeforeAll
+    void seedPlanningData() {
+        assertThat(jdbcTemplate.queryForObject("SELECT current_schema()", String.class)).isEqualTo(SCHEMA);
+        jdbcTemplate.execute(TRUNCATE_SQL);
+        long lastUserId = PLAN_FIRST_USER_ID - PLAN_USERS + 1;
+        jdbcTemplate.update(SEED_PLAN_PORTFOLIOS_SQL, PLAN_FIRST_USER_ID, PLAN_USERS, PLAN_PORTFOLIOS);
+        jdbcTemplate.update(SEED_PLAN_ASSETS_BY_USER_SQL, PLAN_ASSETS_PER_PORTFOLIO, lastUserId, PLAN_FIRST_USER_ID);
+        planPortfolioId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM portfolios WHERE user_id = ?", Long.class, PLAN_FIRST_USER_ID);
+        jdbcTemplate.update(SEED_PLAN_ASSETS_BY_PORTFOLIO_SQL, PLAN_LARGE_PORTFOLIO_ASSETS, planPortfolioId);
+        jdbcTemplate.execute("VACUUM ANALYZE portfolios");
+        jdbcTemplate.execute("VACUUM ANALYZE assets");
+    }
+
+    @AfterAll
+    void deletePlanningData() {
+        jdbcTemplate.execute(TRUNCATE_SQL);
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (int p = 0; p < PORTFOLIOS; p++) {
+            Long portfolioId = portfolioService.createPortfolio(
+                    new CreatePortfolioRequest("Regression " + p, null), USER_ID).getId();
+            portfolioIds.add(portfolioId);
+            for (int a = 0; a < ASSETS_PER_PORTFOLIO; a++) {
+                assetService.createAsset(portfolioId, new CreateAssetRequest(
+                        "QR" + a, a % 2 == 0 ? AssetType.STOCK : AssetType.BOND,
+                        BigDecimal.ONE, BigDecimal.TEN, "USD"), USER_ID);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        portfolioIds.forEach(portfolioId -> portfolioService.deletePortfolio(portfolioId, USER_ID));
+        portfolioIds.clear();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "/api/portfolios, 1",
+            "/api/portfolios/headers, 1",
+            "/api/portfolios/{id}, 2",
+            "/api/portfolios/{id}/summary, 2",
+            "/api/portfolios/{id}/assets, 2",
+            "/api/portfolios/{id}/assets/page?limit=2, 2",
+            "/api/portfolios/{id}/assets/page?assetType=STOCK, 2",
+            "/api/portfolios/{id}/assets/{assetId}, 2"
+    })
+    void endpointExecutesBoundedNumberOfStatements(String path, int expectedStatements) throws Exception {
+        Long portfolioId = portfolioIds.getFirst();
+        Long assetId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM assets WHERE portfolio_id = ?", Long.class, portfolioId);
+        String uri = path.replace("{id}", portfolioId.toString()).replace("{assetId}", assetId.toString());
+
+        List<String> statements = new ArrayList<>();
+        STATEMENTS.set(statements);
+        try {
+            mockMvc.perform(get(uri).with(authentication(
+                            new UsernamePasswordAuthenticationToken(USER_ID, null, List.of()))))
+                    .andExpect(status().isOk());
+        } finally {
+            STATEMENTS.remove();
+        }
+
+        assertThat(statements).as("SQL statements for GET %s", path).hasSize(expectedStatements);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "SELECT * FROM portfolios WHERE user_id = {user}; ux_portfolios_user_id_id",
+            "SELECT * FROM portfolios WHERE id = {portfolio} AND user_id = {user};"
+                    + " portfolios_pkey|ux_portfolios_user_id_id",
+            "SELECT * FROM assets WHERE portfolio_id = {portfolio}; " + ASSETS_BY_PORTFOLIO_INDEXES,
+            "SELECT * FROM assets WHERE id = {asset} AND portfolio_id = {portfolio};"
+                    + " assets_pkey|" + ASSETS_BY_PORTFOLIO_INDEXES,
+            "SELECT * FROM assets WHERE portfolio_id = {portfolio} AND id > 0 ORDER BY id LIMIT 100;"
+                    + " ix_assets_portfolio_id_id",
+            "SELECT * FROM assets WHERE portfolio_id = {portfolio} AND asset_type = 'BOND' AND id > 0"
+                    + " ORDER BY id LIMIT 100; ix_assets_portfolio_id_asset_type_id",
+            "SELECT * FROM assets WHERE portfolio_id = {portfolio} AND symbol = 'SYM42';"
+                    + " ix_assets_portfolio_id_symbol",
+            "SELECT DISTINCT symbol FROM assets WHERE asset_type = 'STOCK'; ix_assets_stock_symbol",
+            "SELECT DISTINCT currency FROM assets WHERE asset_type = 'CASH'; ix_assets_cash_currency"
+    })
+    void accessPathUsesIndex(String sql, String expectedIndexes) {
+        Long assetId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM assets WHERE portfolio_id = ?", Long.class, planPortfolioId);
+        String query = sql.replace("{user}", Long.toString(PLAN_FIRST_USER_ID))
+                .replace("{portfolio}", planPortfolioId.toString())
+                .replace("{asset}", assetId.toString());
+        String plan = jdbcTemplate.queryForList("EXPLAIN " + query, String.class).stream()
+                .collect(Collectors.joining("\n"));
+
+        assertThat(plan).as("plan for %s", query)
+                .containsPattern("(Scan using|Bitmap Index Scan on) (" + expectedIndexes + ")\\s")
+                .doesNotContain("Seq Scan");
+    }
+
+    @TestConfiguration
+    static class StatementRecordingConfig {
+
+        @Bean
+        static BeanPostProcessor statementRecordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                        return bean;
+                    }
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .afterQuery((execution, queries) -> {
+                                List<String> statements = STATEMENTS.get();
+                                if (statements != null) {
+                                    statements.add(queries.stream()
+                                            .map(QueryInfo::getQuery)
+                                            .collect(Collectors.joining("; ")));
+                                }
+                            })
+                            .build();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.atlas.portfolio.config;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TimedRateLimiterAspectExtTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimiterRegistry rateLimiterRegistry = RateLimiterRegistry.of(RateLimiterConfig.custom()
+            .limitForPeriod(1)
+            .limitRefreshPeriod(Duration.ofHours(1))
+            .timeoutDuration(Duration.ZERO)
+            .build());
+
+    @Test
+    void blockingCallsWaitForAPermissionAndRecordTheWait() throws Throwable {
+        RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter("finnhub");
+        TimedRateLimiterAspectExt ext = new TimedRateLimiterAspectExt(meterRegistry, rateLimiterRegistry);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.proceed()).thenReturn(new BigDecimal("101.25"));
+
+        assertThat(ext.handle(joinPoint, rateLimiter, "fetchQuote")).isEqualTo(new BigDecimal("101.25"));
+        assertThatThrownBy(() -> ext.handle(joinPoint, rateLimiter, "fetchQuote"))
+                .isInstanceOf(RequestNotPermitted.class);
+
+        verify(joinPoint, times(1)).proceed();
+        assertThat(meterRegistry.get("finnhub.ratelimiter.wait").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void timersExistBeforeTheFirstCallAndAsyncTypesAreLeftToTheDefaultAspect() {
+        rateLimiterRegistry.rateLimiter("finnhub");
+        TimedRateLimiterAspectExt ext = new TimedRateLimiterAspectExt(meterRegistry, rateLimiterRegistry);
+        rateLimiterRegistry.rateLimiter("exchange-rates");
+
+        assertThat(meterRegistry.get("finnhub.ratelimiter.wait").timer().count()).isZero();
+        assertThat(meterRegistry.get("exchange-rates.ratelimiter.wait").timer().count()).isZero();
+        assertThat(ext.canHandleReturnType(BigDecimal.class)).isTrue();
+        assertThat(ext.canHandleReturnType(CompletableFuture.class)).isFalse();
+        assertThat(ext.canHandleReturnType(Mono.class)).isFalse();
+    }
+}
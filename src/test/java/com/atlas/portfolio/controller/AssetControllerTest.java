@@ -0,0 +1,178 @@
+package com.atlas.portfolio.controller;
+
+import com.atlas.portfolio.dto.request.CreateAssetRequest;
+import com.atlas.portfolio.dto.request.CreatePortfolioRequest;
+import com.atlas.portfolio.dto.response.AssetPageResponse;
+import com.atlas.portfolio.dto.response.AssetResponse;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.service.AssetService;
+import com.atlas.portfolio.service.PortfolioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AssetControllerTest {
+
+    private static final Long USER_ID = -1L;
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private AssetService assetService;
+
+    private Long portfolioId;
+
+    @BeforeEach
+    void setUp() {
+        portfolioId = portfolioService.createPortfolio(new CreatePortfolioRequest("Paging", null), USER_ID).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        portfolioService.deletePortfolio(portfolioId, USER_ID);
+    }
+
+    @Test
+    void pagesWalkEveryAssetOnceAndStopAtTheLastPage() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(createAsset(AssetType.STOCK));
+        }
+
+        AssetPageResponse first = page(null, 2, null);
+        assertThat(first.getItems()).extracting(AssetResponse::getId).containsExactly(ids.get(0), ids.get(1));
+        assertThat(first.getNextCursor()).isEqualTo(ids.get(1));
+
+        AssetPageResponse second = page(first.getNextCursor(), 2, null);
+        assertThat(second.getItems()).extracting(AssetResponse::getId).containsExactly(ids.get(2), ids.get(3));
+        assertThat(second.getNextCursor()).isEqualTo(ids.get(3));
+
+        AssetPageResponse last = page(second.getNextCursor(), 2, null);
+        assertThat(last.getItems()).extracting(AssetResponse::getId).containsExactly(ids.get(4));
+        assertThat(last.getNextCursor()).isNull();
+
+        AssetPageResponse exact = page(null, 5, null);
+        assertThat(exact.getItems()).hasSize(5);
+        assertThat(exact.getNextCursor()).isNull();
+        assertThat(page(null, 0, null).getItems()).extracting(AssetResponse::getId).containsExactly(ids.get(0));
+    }
+
+    @Test
+    void cursorIsStableAcrossIdenticalRowsAndConcurrentWrites() throws Exception {
+        List<Long> stocks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            stocks.add(createAsset(AssetType.STOCK));
+            createAsset(AssetType.BOND);
+        }
+
+        AssetPageResponse first = page(null, 2, AssetType.STOCK);
+        assertThat(first.getItems()).extracting(AssetResponse::getId).containsExactly(stocks.get(0), stocks.get(1));
+
+        assetService.deleteAsset(portfolioId, stocks.get(0), USER_ID);
+        stocks.add(createAsset(AssetType.STOCK));
+
+        List<Long> seen = new ArrayList<>();
+        first.getItems().forEach(asset -> seen.add(asset.getId()));
+        Long cursor = first.getNextCursor();
+        while (cursor != null) {
+            AssetPageResponse next = page(cursor, 2, AssetType.STOCK);
+            next.getItems().forEach(asset -> seen.add(asset.getId()));
+            cursor = next.getNextCursor();
+        }
+
+        assertThat(seen).containsExactlyElementsOf(stocks);
+    }
+
+    @Test
+    void streamedAssetsMatchTheStoredAssets() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            createAsset(AssetType.STOCK);
+        }
+        createAsset(AssetType.CRYPTO);
+
+        MvcResult started = mockMvc.perform(authenticated(get(assetsPath()).accept(NDJSON)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<AssetResponse> streamed = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            streamed.add(objectMapper.readValue(line, AssetResponse.class));
+        }
+        assertThat(streamed).containsExactlyInAnyOrderElementsOf(assetService.getAllAssets(portfolioId, USER_ID));
+    }
+
+    @Test
+    void anotherUsersPortfolioIsNotFound() throws Exception {
+        RequestPostProcessor otherUser = authentication(new UsernamePasswordAuthenticationToken(
+                USER_ID - 1, null, List.of()));
+
+        mockMvc.perform(get(assetsPath() + "/page").with(otherUser)).andExpect(status().isNotFound());
+        mockMvc.perform(get(assetsPath()).accept(NDJSON).with(otherUser))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private AssetPageResponse page(Long afterId, int limit, AssetType assetType) throws Exception {
+        MockHttpServletRequestBuilder request = get(assetsPath() + "/page").param("limit", String.valueOf(limit));
+        if (afterId != null) {
+            request.param("afterId", afterId.toString());
+        }
+        if (assetType != null) {
+            request.param("assetType", assetType.name());
+        }
+        String body = mockMvc.perform(authenticated(request))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return objectMapper.readValue(body, AssetPageResponse.class);
+    }
+
+    private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+        return request.with(authentication(new UsernamePasswordAuthenticationToken(USER_ID, null, List.of())));
+    }
+
+    private String assetsPath() {
+        return "/api/portfolios/" + portfolioId + "/assets";
+    }
+
+    private Long createAsset(AssetType assetType) {
+        return assetService.createAsset(portfolioId, new CreateAssetRequest(
+                "ZZPAGE", assetType, BigDecimal.ONE, BigDecimal.TEN, "USD"), USER_ID).getId();
+    }
+}
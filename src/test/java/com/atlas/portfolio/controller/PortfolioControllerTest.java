@@ -0,0 +1,84 @@
+package com.atlas.portfolio.controller;
+
+import com.atlas.portfolio.dto.request.CreatePortfolioRequest;
+import com.atlas.portfolio.service.PortfolioService;
+import com.atlas.portfolio.service.external.ExchangeRateSnapshot;
+import com.atlas.portfolio.service.external.ExchangeRateStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PortfolioControllerTest {
+
+    private static final Long USER_ID = -1L;
+    private static final RequestPostProcessor USER = authentication(
+            new UsernamePasswordAuthenticationToken(USER_ID, null, List.of()));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private ExchangeRateStore exchangeRateStore;
+
+    private Long portfolioId;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateStore.save(new ExchangeRateSnapshot(Map.of("EUR", new BigDecimal("0.92")), Instant.now()));
+        exchangeRateStore.publishInvalidation("test");
+        portfolioId = portfolioService.createPortfolio(new CreatePortfolioRequest("Currency", null), USER_ID).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        portfolioService.deletePortfolio(portfolioId, USER_ID);
+    }
+
+    @Test
+    void summaryInSupportedCurrencyIsReported() throws Exception {
+        mockMvc.perform(get("/api/portfolios/{id}/summary", portfolioId).param("currency", "eur").with(USER))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reportingCurrency").value("EUR"));
+    }
+
+    @Test
+    void summaryInUnsupportedCurrencyIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/portfolios/{id}/summary", portfolioId).param("currency", "xyz").with(USER))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Currency not supported: XYZ"));
+    }
+
+    @Test
+    void summaryStreamInUnsupportedCurrencyIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/portfolios/{id}/summary/stream", portfolioId)
+                        .param("currency", "XYZ")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .with(USER))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message").value("Currency not supported: XYZ"));
+    }
+}
@@ -0,0 +1,164 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.dto.request.CreatePortfolioRequest;
+import com.atlas.portfolio.dto.response.AssetImportResponse;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.exception.ResourceNotFoundException;
+import com.atlas.portfolio.repository.projection.AssetTypeTotals;
+import com.atlas.portfolio.service.AssetImportService.ImportFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class AssetImportServiceTest {
+
+    private static final Long USER_ID = -1L;
+
+    @Autowired
+    private AssetImportService assetImportService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private PortfolioAggregateService portfolioAggregateService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long portfolioId;
+
+    @BeforeEach
+    void setUp() {
+        portfolioId = portfolioService.createPortfolio(new CreatePortfolioRequest("Import", null), USER_ID).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        portfolioService.deletePortfolio(portfolioId, USER_ID);
+    }
+
+    @Test
+    void csvImportSkipsTheHeaderAndRejectsInvalidRows() throws IOException {
+        AssetImportResponse response = importAssets(ImportFormat.CSV, """
+                symbol,asset_type,quantity,average_purchase_price,currency
+                zzcsv,STOCK,10,100.5,USD
+
+                ZZCSV2,stock,2,50,EUR
+                ZZBAD,STOCK,10,100
+                ZZBAD,OPTION,10,100,USD
+                ZZBAD,STOCK,-1,100,USD
+                ZZBAD,STOCK,1,abc,USD
+                ,STOCK,1,1,usd
+                """);
+
+        assertThat(response.getTotalRows()).isEqualTo(7);
+        assertThat(response.getImportedRows()).isEqualTo(2);
+        assertThat(response.getFailedRows()).isEqualTo(5);
+        assertThat(response.getErrors())
+                .extracting(AssetImportResponse.RowError::getLine, AssetImportResponse.RowError::getMessage)
+                .containsExactly(
+                        tuple(5L, "Malformed row: expected 5 columns but found 4"),
+                        tuple(6L, "Malformed row: No enum constant " + AssetType.class.getName() + ".OPTION"),
+                        tuple(7L, "quantity: Quantity must be greater than 0"),
+                        tuple(8L, "Malformed row: Character a is neither a decimal digit number, decimal point, "
+                                + "nor \"e\" notation exponential mark."),
+                        tuple(9L, "currency: Currency must be uppercase 3-letter code; symbol: Symbol is required"));
+
+        assertThat(jdbcTemplate.queryForList("""
+                        SELECT symbol, asset_type, quantity, average_purchase_price, currency
+                        FROM assets WHERE portfolio_id = ? ORDER BY symbol""", portfolioId))
+                .extracting(row -> row.get("symbol"), row -> row.get("asset_type"),
+                        row -> ((BigDecimal) row.get("quantity")).doubleValue(),
+                        row -> ((BigDecimal) row.get("average_purchase_price")).doubleValue(),
+                        row -> row.get("currency"))
+                .containsExactly(
+                        tuple("ZZCSV", "STOCK", 10.0, 100.5, "USD"),
+                        tuple("ZZCSV2", "STOCK", 2.0, 50.0, "EUR"));
+    }
+
+    @Test
+    void ndjsonImportRejectsMalformedAndInvalidRows() throws IOException {
+        AssetImportResponse response = importAssets(ImportFormat.NDJSON, """
+                {"symbol":"ZZJSON","assetType":"CRYPTO","quantity":0.5,"averagePurchasePrice":30000,"currency":"USD"}
+                {"symbol":"ZZBAD","assetType":"STOCK","quantity":1
+                {"symbol":"ZZBAD","assetType":"OPTION","quantity":1,"averagePurchasePrice":1,"currency":"USD"}
+                {"symbol":"ZZBAD","assetType":"STOCK","quantity":1,"currency":"USD"}
+                """);
+
+        assertThat(response.getTotalRows()).isEqualTo(4);
+        assertThat(response.getImportedRows()).isEqualTo(1);
+        assertThat(response.getFailedRows()).isEqualTo(3);
+        assertThat(response.getErrors()).extracting(AssetImportResponse.RowError::getLine).containsExactly(2L, 3L, 4L);
+        assertThat(response.getErrors().get(0).getMessage()).startsWith("Malformed row: ");
+        assertThat(response.getErrors().get(1).getMessage()).startsWith("Malformed row: ").contains("OPTION");
+        assertThat(response.getErrors().get(2).getMessage())
+                .isEqualTo("averagePurchasePrice: Average purchase price is required");
+
+        assertThat(portfolioAggregateService.findByPortfolioId(portfolioId))
+                .extracting(AssetTypeTotals::assetType, AssetTypeTotals::currency,
+                        totals -> totals.totalInvested().doubleValue(), AssetTypeTotals::assetCount)
+                .containsExactly(tuple(AssetType.CRYPTO, "USD", 15000.0, 1L));
+    }
+
+    @Test
+    void importsAcrossBatchBoundariesAndUpdatesAggregates() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 1; i <= 2_501; i++) {
+            String currency = i % 2 == 0 ? "EUR" : "USD";
+            String quantity = i == 1_000 ? "0" : "2";
+            csv.append("ZZB").append(i).append(",STOCK,").append(quantity).append(",10,").append(currency).append('\n');
+        }
+
+        AssetImportResponse response = importAssets(ImportFormat.CSV, csv.toString());
+
+        assertThat(response.getTotalRows()).isEqualTo(2_501);
+        assertThat(response.getImportedRows()).isEqualTo(2_500);
+        assertThat(response.getErrors()).extracting(AssetImportResponse.RowError::getLine).containsExactly(1_000L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM assets WHERE portfolio_id = ?",
+                Long.class, portfolioId)).isEqualTo(2_500L);
+
+        assertThat(portfolioAggregateService.findByPortfolioId(portfolioId))
+                .extracting(AssetTypeTotals::currency,
+                        totals -> totals.totalInvested().doubleValue(),
+                        totals -> totals.totalValue().doubleValue(),
+                        AssetTypeTotals::assetCount,
+                        AssetTypeTotals::pricedCount)
+                .containsExactlyInAnyOrder(
+                        tuple("EUR", 24_980.0, 0.0, 1_249L, 0L),
+                        tuple("USD", 25_020.0, 0.0, 1_251L, 0L));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM portfolio_flows WHERE portfolio_id = ?",
+                Long.class, portfolioId)).isZero();
+    }
+
+    @Test
+    void importIntoAnotherUsersPortfolioIsRejected() {
+        assertThatThrownBy(() -> assetImportService.importAssets(portfolioId, input("ZZX,STOCK,1,1,USD"),
+                ImportFormat.CSV, USER_ID - 1))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM assets WHERE portfolio_id = ?",
+                Long.class, portfolioId)).isZero();
+    }
+
+    private AssetImportResponse importAssets(ImportFormat format, String content) throws IOException {
+        return assetImportService.importAssets(portfolioId, input(content), format, USER_ID);
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,135 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.dto.request.BatchAssetRequest;
+import com.atlas.portfolio.dto.request.CreateAssetRequest;
+import com.atlas.portfolio.dto.request.CreatePortfolioRequest;
+import com.atlas.portfolio.dto.response.BatchAssetResponse;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.repository.projection.AssetTypeTotals;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class AssetServiceTest {
+
+    private static final Long USER_ID = -1L;
+    private static final Long OTHER_USER_ID = -2L;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private PortfolioAggregateService portfolioAggregateService;
+
+    @Autowired
+    private AssetPriceWriter assetPriceWriter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long portfolioId;
+    private Long otherPortfolioId;
+
+    @BeforeEach
+    void setUp() {
+        portfolioId = portfolioService.createPortfolio(new CreatePortfolioRequest("Batch", null), USER_ID).getId();
+        otherPortfolioId = portfolioService.createPortfolio(
+                new CreatePortfolioRequest("Foreign", null), OTHER_USER_ID).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        portfolioService.deletePortfolio(portfolioId, USER_ID);
+        portfolioService.deletePortfolio(otherPortfolioId, OTHER_USER_ID);
+    }
+
+    @Test
+    void batchAppliesUpdatesAndDeletesAndAdjustsAggregates() {
+        Long first = createAsset(portfolioId, "ZZBATCHA", "10", "100", USER_ID);
+        Long second = createAsset(portfolioId, "ZZBATCHB", "5", "20", USER_ID);
+        Long unpriced = createAsset(portfolioId, "ZZBATCHC", "1", "1", USER_ID);
+        Long foreign = createAsset(otherPortfolioId, "ZZBATCHA", "7", "90", OTHER_USER_ID);
+        setPrice("ZZBATCHA", "150");
+        setPrice("ZZBATCHB", "30");
+
+        BatchAssetResponse response = assetService.applyBatch(portfolioId, new BatchAssetRequest(
+                List.of(new BatchAssetRequest.AssetUpdate(first, new BigDecimal("4"), null),
+                        new BatchAssetRequest.AssetUpdate(second, null, new BigDecimal("25")),
+                        new BatchAssetRequest.AssetUpdate(foreign, new BigDecimal("1"), null)),
+                List.of(unpriced, foreign, Long.MAX_VALUE)), USER_ID);
+
+        assertThat(response.getResults())
+                .extracting(BatchAssetResponse.ItemResult::getAssetId, BatchAssetResponse.ItemResult::getAction,
+                        BatchAssetResponse.ItemResult::getStatus)
+                .containsExactly(
+                        tuple(first, BatchAssetResponse.Action.UPDATE, BatchAssetResponse.Status.UPDATED),
+                        tuple(second, BatchAssetResponse.Action.UPDATE, BatchAssetResponse.Status.UPDATED),
+                        tuple(foreign, BatchAssetResponse.Action.UPDATE, BatchAssetResponse.Status.NOT_FOUND),
+                        tuple(unpriced, BatchAssetResponse.Action.DELETE, BatchAssetResponse.Status.DELETED),
+                        tuple(foreign, BatchAssetResponse.Action.DELETE, BatchAssetResponse.Status.NOT_FOUND),
+                        tuple(Long.MAX_VALUE, BatchAssetResponse.Action.DELETE, BatchAssetResponse.Status.NOT_FOUND));
+
+        assertThat(jdbcTemplate.queryForList("""
+                        SELECT id, quantity, average_purchase_price FROM assets
+                        WHERE portfolio_id IN (?, ?) ORDER BY id""", portfolioId, otherPortfolioId))
+                .extracting(row -> row.get("id"), row -> ((BigDecimal) row.get("quantity")).doubleValue(),
+                        row -> ((BigDecimal) row.get("average_purchase_price")).doubleValue())
+                .containsExactly(tuple(first, 4.0, 100.0), tuple(second, 5.0, 25.0), tuple(foreign, 7.0, 90.0));
+
+        assertThat(portfolioAggregateService.findByPortfolioId(portfolioId))
+                .extracting(totals -> totals.totalInvested().doubleValue(),
+                        totals -> totals.totalValue().doubleValue(),
+                        AssetTypeTotals::assetCount,
+                        AssetTypeTotals::pricedCount)
+                .containsExactly(tuple(525.0, 750.0, 2L, 2L));
+        assertThat(portfolioAggregateService.findByPortfolioId(otherPortfolioId))
+                .extracting(totals -> totals.totalInvested().doubleValue(),
+                        totals -> totals.totalValue().doubleValue(),
+                        AssetTypeTotals::assetCount)
+                .containsExactly(tuple(630.0, 1050.0, 1L));
+    }
+
+    @Test
+    void nullUpdatesOrDeletesAreTreatedAsEmpty() throws Exception {
+        Long assetId = createAsset(portfolioId, "ZZBATCHA", "10", "100", USER_ID);
+
+        BatchAssetRequest deletesOnly = objectMapper.readValue(
+                "{\"updates\": null, \"deletes\": [" + assetId + "]}", BatchAssetRequest.class);
+        BatchAssetRequest nothing = objectMapper.readValue(
+                "{\"updates\": null, \"deletes\": null}", BatchAssetRequest.class);
+
+        assertThat(assetService.applyBatch(portfolioId, nothing, USER_ID).getResults()).isEmpty();
+        assertThat(assetService.applyBatch(portfolioId, deletesOnly, USER_ID).getResults())
+                .extracting(BatchAssetResponse.ItemResult::getStatus)
+                .containsExactly(BatchAssetResponse.Status.DELETED);
+        assertThat(portfolioAggregateService.findByPortfolioId(portfolioId)).isEmpty();
+    }
+
+    private Long createAsset(Long portfolio, String symbol, String quantity, String price, Long userId) {
+        return assetService.createAsset(portfolio, new CreateAssetRequest(
+                symbol, AssetType.STOCK, new BigDecimal(quantity), new BigDecimal(price), "USD"), userId).getId();
+    }
+
+    private void setPrice(String symbol, String price) {
+        assetPriceWriter.enqueueStockPrice(symbol, new BigDecimal(price), LocalDateTime.now());
+        assetPriceWriter.flush();
+    }
+}
@@ -0,0 +1,106 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.service.external.ExchangeRateApiClient;
+import com.atlas.portfolio.service.external.InMemoryExchangeRateStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExchangeRateServiceTest {
+
+    private final ExchangeRateApiClient apiClient = mock(ExchangeRateApiClient.class);
+    private final InMemoryExchangeRateStore store = new InMemoryExchangeRateStore();
+
+    @Test
+    void coldStartFetchesOnceAndSharesRatesThroughStore() {
+        when(apiClient.fetchAllRatesFromUSD()).thenReturn(Map.of("EUR", new BigDecimal("0.92")));
+        ExchangeRateService first = node(Duration.ofHours(6));
+        ExchangeRateService second = node(Duration.ofHours(6));
+
+        assertThat(first.getRateFromUSD("EUR")).isEqualByComparingTo("0.92");
+        assertThat(second.getRateFromUSD("EUR")).isEqualByComparingTo("0.92");
+        verify(apiClient, times(1)).fetchAllRatesFromUSD();
+    }
+
+    @Test
+    void refreshReplacesRatesAndInvalidatesOtherNodes() {
+        when(apiClient.fetchAllRatesFromUSD())
+                .thenReturn(Map.of("EUR", new BigDecimal("0.92")))
+                .thenReturn(Map.of("EUR", new BigDecimal("0.95")));
+        ExchangeRateService first = node(Duration.ZERO);
+        ExchangeRateService second = node(Duration.ZERO);
+        assertThat(second.getRateFromUSD("EUR")).isEqualByComparingTo("0.92");
+
+        first.refreshExchangeRateCache();
+
+        assertThat(first.getRateFromUSD("EUR")).isEqualByComparingTo("0.95");
+        assertThat(second.getRateFromUSD("EUR")).isEqualByComparingTo("0.95");
+        verify(apiClient, times(2)).fetchAllRatesFromUSD();
+    }
+
+    @Test
+    void failedRefreshKeepsServingPreviousRates() {
+        when(apiClient.fetchAllRatesFromUSD())
+                .thenReturn(Map.of("EUR", new BigDecimal("0.92")))
+                .thenThrow(new RuntimeException("upstream unavailable"));
+        ExchangeRateService service = node(Duration.ZERO);
+        service.getRateFromUSD("EUR");
+
+        service.refreshExchangeRateCache();
+
+        assertThat(service.getRateFromUSD("EUR")).isEqualByComparingTo("0.92");
+    }
+
+    @Test
+    void refreshIsSkippedWhileAnotherNodeHoldsTheLock() {
+        when(apiClient.fetchAllRatesFromUSD()).thenReturn(Map.of("EUR", new BigDecimal("0.92")));
+        ExchangeRateService service = node(Duration.ZERO);
+        service.getRateFromUSD("EUR");
+        store.tryLockRefresh("other-node", Duration.ofMinutes(1));
+
+        service.refreshExchangeRateCache();
+
+        verify(apiClient, times(1)).fetchAllRatesFromUSD();
+    }
+
+    @Test
+    void crossRatesMatchDirectDivisionAndConvertAllUsesOneSnapshot() {
+        when(apiClient.fetchAllRatesFromUSD()).thenReturn(Map.of(
+                "USD", BigDecimal.ONE,
+                "EUR", new BigDecimal("0.9234"),
+                "JPY", new BigDecimal("149.87"),
+                "GBP", new BigDecimal("0.7891")));
+        ExchangeRateService service = node(Duration.ofHours(6));
+
+        assertThat(service.getRate("EUR", "JPY"))
+                .isEqualTo(new BigDecimal("149.87").divide(new BigDecimal("0.9234"), 10, RoundingMode.HALF_UP));
+        assertThat(service.getRate("USD", "GBP")).isEqualTo(new BigDecimal("0.7891000000"));
+        assertThat(service.getRate("GBP", "GBP")).isEqualTo(BigDecimal.ONE);
+        assertThat(service.convert(new BigDecimal("100"), "GBP", "EUR")).isEqualTo(new BigDecimal("117.02"));
+        assertThat(service.convertAll(
+                List.of(new BigDecimal("100"), new BigDecimal("2500"), new BigDecimal("10")),
+                List.of("GBP", "JPY", "USD"),
+                "EUR"))
+                .containsExactly(new BigDecimal("117.02"), new BigDecimal("15.40"), new BigDecimal("9.23"));
+        assertThatThrownBy(() -> service.getRate("EUR", "XXX")).hasMessage("Currency not supported: XXX");
+    }
+
+    private ExchangeRateService node(Duration ttl) {
+        ExchangeRateService service = new ExchangeRateService(
+                apiClient, store, new SimpleMeterRegistry(), ttl, Duration.ZERO);
+        service.subscribeInvalidations();
+        return service;
+    }
+}
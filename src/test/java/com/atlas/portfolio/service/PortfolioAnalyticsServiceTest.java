@@ -0,0 +1,127 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.dto.request.CreateAssetRequest;
+import com.atlas.portfolio.dto.request.CreatePortfolioRequest;
+import com.atlas.portfolio.dto.request.UpdateAssetRequest;
+import com.atlas.portfolio.dto.response.PortfolioSummaryResponse;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.service.external.ExchangeRateSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class PortfolioAnalyticsServiceTest {
+
+    private static final Long USER_ID = -1L;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private AssetPriceWriter assetPriceWriter;
+
+    @Autowired
+    private PortfolioAnalyticsService portfolioAnalyticsService;
+
+    @MockitoBean
+    private ExchangeRateService exchangeRateService;
+
+    private Long portfolioId;
+
+    @BeforeEach
+    void setUp() {
+        portfolioId = portfolioService.createPortfolio(new CreatePortfolioRequest("Analytics", null), USER_ID).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        portfolioService.deletePortfolio(portfolioId, USER_ID);
+    }
+
+    @Test
+    void allSourcesProduceIdenticalSummaryForEmptyPortfolio() {
+        assertIdenticalSummaries();
+    }
+
+    @Test
+    void allSourcesProduceIdenticalSummary() {
+        Long appleId = createAsset("ZZAAPL", AssetType.STOCK, "10", "150.5", "USD");
+        createAsset("ZZMSFT", AssetType.STOCK, "3.123", "300", "USD");
+        createAsset("EUR", AssetType.CASH, "1000", "1.1", "EUR");
+        createAsset("ZZBND", AssetType.BOND, "5", "99", "USD");
+        assertIdenticalSummaries();
+
+        LocalDateTime now = LocalDateTime.now();
+        assetPriceWriter.enqueueStockPrice("ZZAAPL", new BigDecimal("190.12"), now);
+        assetPriceWriter.enqueueCashRate("EUR", new BigDecimal("1.0875"), now);
+        assetPriceWriter.flush();
+        PortfolioSummaryResponse summary = assertIdenticalSummaries();
+        assertThat(summary.getTotalValue()).isEqualByComparingTo("2988.7");
+
+        assetService.updateAsset(portfolioId, appleId, new UpdateAssetRequest(new BigDecimal("12"), null), USER_ID);
+        assetPriceWriter.enqueueStockPrice("ZZMSFT", new BigDecimal("410.5"), now.plusSeconds(1));
+        assetPriceWriter.flush();
+        assertIdenticalSummaries();
+
+        assetService.deleteAsset(portfolioId, appleId, USER_ID);
+        assertIdenticalSummaries();
+        verifyNoInteractions(exchangeRateService);
+    }
+
+    @Test
+    void summaryIsConvertedToReportingCurrencyWithOneSnapshot() {
+        createAsset("ZZAAPL", AssetType.STOCK, "10", "100", "USD");
+        createAsset("ZZSAP", AssetType.STOCK, "4", "50", "EUR");
+        createAsset("EUR", AssetType.CASH, "1000", "1.1", "EUR");
+        when(exchangeRateService.getCrossRates()).thenReturn(CrossRateMatrix.of(
+                new ExchangeRateSnapshot(Map.of("EUR", new BigDecimal("0.8")), Instant.now()), "USD", 10));
+
+        PortfolioSummaryResponse summary = assertIdenticalSummaries("EUR");
+
+        assertThat(summary.getReportingCurrency()).isEqualTo("EUR");
+        assertThat(summary.getTotalInvested()).isEqualByComparingTo("1880");
+        assertThat(summary.getAssetTypeBreakdowns())
+                .extracting(PortfolioSummaryResponse.AssetTypeBreakdown::getAssetType,
+                        breakdown -> breakdown.getTotalInvested().stripTrailingZeros().toPlainString())
+                .containsExactlyInAnyOrder(tuple("STOCK", "1000"), tuple("CASH", "880"));
+    }
+
+    private Long createAsset(String symbol, AssetType type, String quantity, String price, String currency) {
+        return assetService.createAsset(portfolioId, new CreateAssetRequest(
+                symbol, type, new BigDecimal(quantity), new BigDecimal(price), currency), USER_ID).getId();
+    }
+
+    private PortfolioSummaryResponse assertIdenticalSummaries() {
+        return assertIdenticalSummaries("USD");
+    }
+
+    private PortfolioSummaryResponse assertIdenticalSummaries(String reportingCurrency) {
+        PortfolioSummaryResponse entities = portfolioAnalyticsService.getPortfolioSummary(
+                portfolioId, USER_ID, reportingCurrency, PortfolioAnalyticsService.SummarySource.ENTITIES);
+
+        assertThat(portfolioAnalyticsService.getPortfolioSummary(
+                portfolioId, USER_ID, reportingCurrency, PortfolioAnalyticsService.SummarySource.QUERY))
+                .isEqualTo(entities);
+        assertThat(portfolioAnalyticsService.getPortfolioSummary(
+                portfolioId, USER_ID, reportingCurrency, PortfolioAnalyticsService.SummarySource.AGGREGATES))
+                .isEqualTo(entities);
+        return entities;
+    }
+}
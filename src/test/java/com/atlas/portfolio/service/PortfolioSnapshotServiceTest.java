@@ -0,0 +1,167 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.dto.request.CreateAssetRequest;
+import com.atlas.portfolio.dto.request.CreatePortfolioRequest;
+import com.atlas.portfolio.dto.request.UpdateAssetRequest;
+import com.atlas.portfolio.dto.response.PortfolioPerformanceResponse;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.service.external.ExchangeRateSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "portfolio-snapshots.cron=-")
+class PortfolioSnapshotServiceTest {
+
+    private static final Long USER_ID = -1L;
+    private static final LocalDate DAY = LocalDate.of(2100, 1, 1);
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private AssetPriceWriter assetPriceWriter;
+
+    @Autowired
+    private PortfolioSnapshotService portfolioSnapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private ExchangeRateService exchangeRateService;
+
+    private Long portfolioId;
+
+    @BeforeEach
+    void setUp() {
+        portfolioId = portfolioService.createPortfolio(new CreatePortfolioRequest("Snapshots", null), USER_ID).getId();
+        when(exchangeRateService.getCrossRates()).thenReturn(CrossRateMatrix.of(
+                new ExchangeRateSnapshot(Map.of("EUR", new BigDecimal("0.8")), Instant.now()), "USD", 10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        portfolioService.deletePortfolio(portfolioId, USER_ID);
+        jdbcTemplate.update("DELETE FROM portfolio_snapshots WHERE snapshot_date >= ?", DAY);
+        jdbcTemplate.update("UPDATE portfolio_flows SET snapshot_date = NULL WHERE snapshot_date >= ?", DAY);
+    }
+
+    @Test
+    void snapshotsChainTimeWeightedReturnAcrossCashFlows() {
+        createAsset("ZZSNAP", "10", "100");
+        setPrice("100");
+        portfolioSnapshotService.captureSnapshots(DAY);
+
+        setPrice("110");
+        portfolioSnapshotService.captureSnapshots(DAY.plusDays(1));
+
+        createAsset("ZZSNAP", "5", "110");
+        setPrice("110");
+        portfolioSnapshotService.captureSnapshots(DAY.plusDays(2));
+
+        PortfolioPerformanceResponse performance = portfolioSnapshotService.getPerformance(
+                portfolioId, USER_ID, DAY.minusDays(1), DAY.plusDays(2));
+        assertThat(performance.getTimeWeightedReturnPercent()).isEqualByComparingTo("10");
+        assertThat(performance.getPoints())
+                .extracting(PortfolioPerformanceResponse.PerformancePoint::getDate,
+                        point -> point.getTotalValue().doubleValue(),
+                        point -> point.getTotalInvested().doubleValue(),
+                        point -> point.getTimeWeightedReturnPercent().doubleValue())
+                .containsExactly(
+                        tuple(DAY, 1000.0, 1000.0, 0.0),
+                        tuple(DAY.plusDays(1), 1100.0, 1000.0, 10.0),
+                        tuple(DAY.plusDays(2), 1650.0, 1550.0, 10.0));
+
+        assertThat(portfolioSnapshotService.getPerformance(portfolioId, USER_ID, DAY.plusDays(2), DAY.plusDays(2))
+                .getTimeWeightedReturnPercent()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void holdingsLeavingThePortfolioAreMeasuredAtMarketValue() {
+        Long assetId = createAsset("ZZSNAP", "10", "100");
+        setPrice("100");
+        portfolioSnapshotService.captureSnapshots(DAY);
+
+        setPrice("150");
+        portfolioSnapshotService.captureSnapshots(DAY.plusDays(1));
+
+        assetService.updateAsset(portfolioId, assetId, new UpdateAssetRequest(new BigDecimal("4"), null), USER_ID);
+        portfolioSnapshotService.captureSnapshots(DAY.plusDays(2));
+
+        assetService.deleteAsset(portfolioId, assetId, USER_ID);
+        portfolioSnapshotService.captureSnapshots(DAY.plusDays(3));
+
+        PortfolioPerformanceResponse performance = portfolioSnapshotService.getPerformance(
+                portfolioId, USER_ID, DAY, DAY.plusDays(3));
+        assertThat(performance.getTimeWeightedReturnPercent()).isEqualByComparingTo("50");
+        assertThat(performance.getPoints())
+                .extracting(point -> point.getTotalValue().doubleValue(),
+                        point -> point.getTimeWeightedReturnPercent().doubleValue())
+                .containsExactly(
+                        tuple(1000.0, 0.0),
+                        tuple(1500.0, 50.0),
+                        tuple(600.0, 50.0),
+                        tuple(0.0, 50.0));
+    }
+
+    @Test
+    void unpricedHoldingsMoveNoFlowUntilTheyArePriced() {
+        createAsset("ZZSNAP", "10", "100");
+        setPrice("100");
+        portfolioSnapshotService.captureSnapshots(DAY);
+
+        createAsset("ZZSNAPB", AssetType.BOND, "5", "100");
+        portfolioSnapshotService.captureSnapshots(DAY.plusDays(1));
+
+        createAsset("ZZSNAP", "5", "90");
+        portfolioSnapshotService.captureSnapshots(DAY.plusDays(2));
+
+        setPrice("100");
+        portfolioSnapshotService.captureSnapshots(DAY.plusDays(3));
+
+        PortfolioPerformanceResponse performance = portfolioSnapshotService.getPerformance(
+                portfolioId, USER_ID, DAY, DAY.plusDays(3));
+        assertThat(performance.getTimeWeightedReturnPercent()).isEqualByComparingTo("0");
+        assertThat(performance.getPoints())
+                .extracting(point -> point.getTotalValue().doubleValue(),
+                        point -> point.getTotalInvested().doubleValue(),
+                        point -> point.getTimeWeightedReturnPercent().doubleValue())
+                .containsExactly(
+                        tuple(1000.0, 1000.0, 0.0),
+                        tuple(1000.0, 1500.0, 0.0),
+                        tuple(1000.0, 1950.0, 0.0),
+                        tuple(1500.0, 1950.0, 0.0));
+    }
+
+    private Long createAsset(String symbol, String quantity, String price) {
+        return createAsset(symbol, AssetType.STOCK, quantity, price);
+    }
+
+    private Long createAsset(String symbol, AssetType type, String quantity, String price) {
+        return assetService.createAsset(portfolioId, new CreateAssetRequest(
+                symbol, type, new BigDecimal(quantity), new BigDecimal(price), "USD"), USER_ID).getId();
+    }
+
+    private void setPrice(String price) {
+        assetPriceWriter.enqueueStockPrice("ZZSNAP", new BigDecimal(price), LocalDateTime.now());
+        assetPriceWriter.flush();
+    }
+}
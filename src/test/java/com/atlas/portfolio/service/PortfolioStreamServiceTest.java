@@ -0,0 +1,108 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.dto.request.CreateAssetRequest;
+import com.atlas.portfolio.dto.request.CreatePortfolioRequest;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PortfolioStreamServiceTest {
+
+    private static final Long USER_ID = -4L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private AssetPriceWriter assetPriceWriter;
+
+    @Autowired
+    private PortfolioStreamService portfolioStreamService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long portfolioId;
+
+    @BeforeEach
+    void setUp() {
+        portfolioId = portfolioService.createPortfolio(new CreatePortfolioRequest("Stream", null), USER_ID).getId();
+        assetService.createAsset(portfolioId, new CreateAssetRequest(
+                "ZZSSE", AssetType.STOCK, new BigDecimal("2"), BigDecimal.TEN, "USD"), USER_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        portfolioService.deletePortfolio(portfolioId, USER_ID);
+    }
+
+    @Test
+    void streamsSummaryThenPatchesWhenAHeldPriceChanges() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/portfolios/{id}/summary/stream", portfolioId)
+                        .param("intervalMs", "0")
+                        .with(authentication(new UsernamePasswordAuthenticationToken(USER_ID, null, List.of()))))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        assertThat(response.getContentAsString()).contains("event:summary");
+
+        assetPriceWriter.enqueueStockPrice("ZZSSE", new BigDecimal("12.5"), LocalDateTime.now());
+        assetPriceWriter.flush();
+        portfolioStreamService.dispatch();
+
+        String patch = awaitEvent(response, "event:patch");
+        JsonNode node = objectMapper.readTree(patch);
+        assertThat(node.get("totalValue").decimalValue()).isEqualByComparingTo("25");
+        assertThat(node.has("portfolioName")).isFalse();
+    }
+
+    @Test
+    void mergePatchContainsOnlyChangedFields() throws Exception {
+        JsonNode previous = objectMapper.readTree("""
+                {"name": "a", "total": 1, "nested": {"x": 1, "y": 2}, "gone": true, "list": [1]}""");
+        JsonNode next = objectMapper.readTree("""
+                {"name": "a", "total": 2, "nested": {"x": 1, "y": 3}, "list": [1, 2]}""");
+
+        assertThat(PortfolioStreamService.mergePatch(previous, next, objectMapper)).isEqualTo(objectMapper.readTree("""
+                {"total": 2, "nested": {"y": 3}, "gone": null, "list": [1, 2]}"""));
+    }
+
+    private String awaitEvent(MockHttpServletResponse response, String event) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            String content = response.getContentAsString();
+            int start = content.indexOf(event);
+            if (start >= 0) {
+                int data = content.indexOf("data:", start) + "data:".length();
+                return content.substring(data, content.indexOf('\n', data));
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("No " + event + " in " + response.getContentAsString());
+    }
+}
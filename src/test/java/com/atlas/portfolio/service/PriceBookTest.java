@@ -0,0 +1,64 @@
+package com.atlas.portfolio.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceBookTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000);
+
+    @Test
+    void mappedBookSurvivesReopening(@TempDir Path directory) {
+        String file = directory.resolve("price-book.bin").toString();
+        PriceBook priceBook = new PriceBook(16, file);
+        priceBook.update("AAPL", new BigDecimal("190.125"), NOW);
+        priceBook.update("MSFT", new BigDecimal("410.5"), NOW.plusSeconds(1));
+        priceBook.close();
+
+        PriceBook reopened = new PriceBook(16, file);
+
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.getQuote("AAPL")).contains(new PriceBook.Quote(new BigDecimal("190.12500000"), NOW));
+        assertThat(reopened.getQuote("MSFT")).contains(
+                new PriceBook.Quote(new BigDecimal("410.50000000"), NOW.plusSeconds(1)));
+        assertThat(reopened.getQuote("TSLA")).isEmpty();
+    }
+
+    @Test
+    void symbolsBeyondCapacityAreNotStored() {
+        PriceBook priceBook = new PriceBook(1, "");
+
+        assertThat(priceBook.update("AAPL", BigDecimal.ONE, NOW)).isTrue();
+        assertThat(priceBook.update("MSFT", BigDecimal.ONE, NOW)).isFalse();
+        assertThat(priceBook.getQuote("MSFT")).isEmpty();
+    }
+
+    @Test
+    void readersNeverObserveTornQuotes() {
+        PriceBook priceBook = new PriceBook(4, "");
+        priceBook.update("AAPL", BigDecimal.ZERO, NOW);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        // Each write pairs price n with time NOW + n seconds, so a torn read shows up as a mismatch
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            for (int n = 1; n <= 200_000; n++) {
+                priceBook.update("AAPL", BigDecimal.valueOf(n), NOW.plusSeconds(n));
+            }
+            running.set(false);
+        });
+
+        while (running.get()) {
+            PriceBook.Quote quote = priceBook.getQuote("AAPL").orElseThrow();
+            assertThat(quote.updatedAt()).isEqualTo(NOW.plusSeconds(quote.price().longValueExact()));
+        }
+        writer.join();
+    }
+}
@@ -0,0 +1,135 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.dto.response.PriceBarsResponse;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.exception.InvalidRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class PriceHistoryServiceTest {
+
+    private static final String SYMBOL = "ZZHIST";
+    private static final LocalDateTime BASE = LocalDate.now().plusDays(1).atTime(10, 0);
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM price_history WHERE symbol = ?", SYMBOL);
+        jdbcTemplate.update("DELETE FROM price_bars WHERE symbol = ?", SYMBOL);
+    }
+
+    @Test
+    void ticksAreRolledUpIntoOhlcBars() {
+        append(5, "100");
+        append(30, "105");
+        append(50, "98");
+        append(59, "101");
+        append(70, "110");
+
+        priceHistoryService.rollUp();
+
+        PriceBarsResponse minuteBars = priceHistoryService.getBars(
+                AssetType.STOCK, SYMBOL, BASE.minusHours(1), BASE.plusHours(2), null, 500);
+        assertThat(minuteBars.getResolution()).isEqualTo("1m");
+        assertThat(minuteBars.getBars())
+                .extracting(PriceBarsResponse.PriceBar::getTime, bar -> bar.getOpen().doubleValue(),
+                        bar -> bar.getHigh().doubleValue(), bar -> bar.getLow().doubleValue(),
+                        bar -> bar.getClose().doubleValue())
+                .containsExactly(
+                        tuple(BASE, 100.0, 105.0, 98.0, 101.0),
+                        tuple(BASE.plusMinutes(1), 110.0, 110.0, 110.0, 110.0));
+
+        PriceBarsResponse hourBars = priceHistoryService.getBars(
+                AssetType.STOCK, SYMBOL, BASE.minusHours(1), BASE.plusHours(2), null, 3);
+        assertThat(hourBars.getResolution()).isEqualTo("1h");
+        assertThat(hourBars.getBars())
+                .extracting(PriceBarsResponse.PriceBar::getTime, bar -> bar.getOpen().doubleValue(),
+                        bar -> bar.getHigh().doubleValue(), bar -> bar.getLow().doubleValue(),
+                        bar -> bar.getClose().doubleValue())
+                .containsExactly(tuple(BASE, 100.0, 110.0, 98.0, 110.0));
+
+        PriceBarsResponse dayBars = priceHistoryService.getBars(AssetType.STOCK, SYMBOL,
+                BASE.toLocalDate().atStartOfDay(), BASE.plusDays(1), PriceHistoryService.Resolution.DAY, 500);
+        assertThat(dayBars.getBars()).singleElement()
+                .satisfies(bar -> assertThat(bar.getClose()).isEqualByComparingTo("110"));
+    }
+
+    @Test
+    void lateTicksAreFoldedIntoBarsBehindTheNewestBar() {
+        append(5, "100");
+        append(65, "110");
+        priceHistoryService.rollUp();
+
+        append(59, "95");
+        priceHistoryService.rollUp();
+
+        PriceBarsResponse minuteBars = priceHistoryService.getBars(
+                AssetType.STOCK, SYMBOL, BASE, BASE.plusHours(1), PriceHistoryService.Resolution.MINUTE, 500);
+        assertThat(minuteBars.getBars())
+                .extracting(PriceBarsResponse.PriceBar::getTime, bar -> bar.getLow().doubleValue(),
+                        bar -> bar.getClose().doubleValue())
+                .containsExactly(
+                        tuple(BASE, 95.0, 95.0),
+                        tuple(BASE.plusMinutes(1), 110.0, 110.0));
+
+        PriceBarsResponse hourBars = priceHistoryService.getBars(
+                AssetType.STOCK, SYMBOL, BASE, BASE.plusHours(1), PriceHistoryService.Resolution.HOUR, 500);
+        assertThat(hourBars.getBars()).singleElement()
+                .satisfies(bar -> assertThat(bar.getLow()).isEqualByComparingTo("95"));
+    }
+
+    @Test
+    void resolutionFallsBackToCoarserBarsOutsideRetention() {
+        LocalDateTime from = LocalDateTime.now().minusDays(60);
+
+        assertThat(priceHistoryService.selectResolution(from, from.plusDays(1), 5000))
+                .isEqualTo(PriceHistoryService.Resolution.HOUR);
+        assertThat(priceHistoryService.selectResolution(from, from.plusDays(30), 500))
+                .isEqualTo(PriceHistoryService.Resolution.DAY);
+    }
+
+    @Test
+    void rangesThatAreEmptyOrExceedTheBarLimitAreRejected() {
+        assertThatThrownBy(() -> priceHistoryService.getBars(AssetType.STOCK, SYMBOL, BASE, BASE, null, 500))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("'from' must be before 'to'");
+        assertThatThrownBy(() -> priceHistoryService.getBars(AssetType.STOCK, SYMBOL,
+                BASE.minusYears(3), BASE, PriceHistoryService.Resolution.MINUTE, 500))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageStartingWith("Range spans more than 5000 1m bars");
+
+        assertThat(priceHistoryService.getBars(AssetType.STOCK, SYMBOL,
+                BASE, BASE.plusMinutes(5000), PriceHistoryService.Resolution.MINUTE, 500).getBars()).isEmpty();
+    }
+
+    @Test
+    void resolutionsAreParsedFromTheirResponseLabels() {
+        assertThat(PriceHistoryService.Resolution.fromLabel("1h")).isEqualTo(PriceHistoryService.Resolution.HOUR);
+        assertThatThrownBy(() -> PriceHistoryService.Resolution.fromLabel("HOUR"))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Unsupported resolution: HOUR (expected one of [1m, 1h, 1d])");
+    }
+
+    private void append(int secondsAfterBase, String price) {
+        priceHistoryService.append(AssetType.STOCK, new String[]{SYMBOL}, new BigDecimal[]{new BigDecimal(price)},
+                new Timestamp[]{Timestamp.valueOf(BASE.plusSeconds(secondsAfterBase))});
+    }
+}
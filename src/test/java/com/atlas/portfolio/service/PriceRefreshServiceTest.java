@@ -0,0 +1,150 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.dto.request.CreateAssetRequest;
+import com.atlas.portfolio.dto.request.CreatePortfolioRequest;
+import com.atlas.portfolio.dto.response.PriceRefreshJobResponse;
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PriceRefreshServiceTest {
+
+    private static final Long USER_ID = -3L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private PriceRefreshService priceRefreshService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private StockPriceService stockPriceService;
+
+    @MockitoBean
+    private ExchangeRateService exchangeRateService;
+
+    private Long portfolioId;
+
+    @BeforeEach
+    void setUp() {
+        portfolioId = portfolioService.createPortfolio(new CreatePortfolioRequest("Refresh", null), USER_ID).getId();
+        createAsset("ZZJOBA", AssetType.STOCK, "USD");
+        createAsset("ZZJOBB", AssetType.STOCK, "USD");
+        createAsset("ZZJOBC", AssetType.STOCK, "USD");
+        createAsset("EUR", AssetType.CASH, "EUR");
+    }
+
+    @AfterEach
+    void tearDown() {
+        portfolioService.deletePortfolio(portfolioId, USER_ID);
+    }
+
+    @Test
+    void refreshRunsAsJobAndReportsPerSymbolOutcome() throws Exception {
+        when(stockPriceService.fetchStockQuote("ZZJOBA"))
+                .thenReturn(PriceQuote.fresh(new BigDecimal("123.45"), LocalDateTime.now()));
+        when(stockPriceService.fetchStockQuote("ZZJOBB")).thenThrow(new IllegalStateException("No quote data"));
+        when(stockPriceService.fetchStockQuote("ZZJOBC"))
+                .thenReturn(new PriceQuote(new BigDecimal("99"), LocalDateTime.now().minusHours(1), true));
+        when(exchangeRateService.getRate("EUR", "USD")).thenReturn(new BigDecimal("1.1"));
+
+        String location = mockMvc.perform(post("/api/portfolios/{id}/refresh-prices", portfolioId)
+                        .with(csrf())
+                        .with(authentication(new UsernamePasswordAuthenticationToken(USER_ID, null, List.of()))))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.total").value(4))
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getHeader("Location");
+        String jobId = location.substring(location.lastIndexOf('/') + 1);
+
+        PriceRefreshJobResponse job = awaitCompletion(jobId);
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED_WITH_ERRORS");
+        assertThat(job.getSucceeded()).isEqualTo(2);
+        assertThat(job.getFailed()).isEqualTo(1);
+        assertThat(job.getResults())
+                .extracting(PriceRefreshJobResponse.PriceResult::getKey,
+                        PriceRefreshJobResponse.PriceResult::getStatus,
+                        PriceRefreshJobResponse.PriceResult::getPrice)
+                .containsExactlyInAnyOrder(
+                        tuple("ZZJOBA", "SUCCEEDED", new BigDecimal("123.45")),
+                        tuple("ZZJOBB", "FAILED", null),
+                        tuple("ZZJOBC", "STALE", new BigDecimal("99")),
+                        tuple("EUR", "SUCCEEDED", new BigDecimal("1.1")));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT current_price FROM assets WHERE portfolio_id = ? AND symbol = 'ZZJOBA'",
+                BigDecimal.class, portfolioId)).isEqualByComparingTo("123.45");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT price_updated_at FROM assets WHERE portfolio_id = ? AND symbol = 'ZZJOBC'",
+                LocalDateTime.class, portfolioId)).isNull();
+    }
+
+    @Test
+    void completedJobsArePurgedOnceTheirRetentionExpires() throws Exception {
+        when(stockPriceService.fetchStockQuote(anyString()))
+                .thenReturn(PriceQuote.fresh(BigDecimal.ONE, LocalDateTime.now()));
+        when(exchangeRateService.getRate("EUR", "USD")).thenReturn(BigDecimal.ONE);
+
+        String jobId = priceRefreshService.startPortfolioRefresh(portfolioId, USER_ID).getJobId();
+        PriceRefreshJobResponse job = awaitCompletion(jobId);
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+
+        priceRefreshService.purgeJobsCompletedBefore(job.getCompletedAt());
+        assertThat(priceRefreshService.getRefreshJob(portfolioId, jobId, USER_ID).getJobId()).isEqualTo(jobId);
+
+        priceRefreshService.purgeJobsCompletedBefore(job.getCompletedAt().plusNanos(1));
+        assertThatThrownBy(() -> priceRefreshService.getRefreshJob(portfolioId, jobId, USER_ID))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private PriceRefreshJobResponse awaitCompletion(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        PriceRefreshJobResponse job = priceRefreshService.getRefreshJob(portfolioId, jobId, USER_ID);
+        while (job.getStatus().equals("RUNNING") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = priceRefreshService.getRefreshJob(portfolioId, jobId, USER_ID);
+        }
+        return job;
+    }
+
+    private void createAsset(String symbol, AssetType type, String currency) {
+        assetService.createAsset(portfolioId, new CreateAssetRequest(
+                symbol, type, BigDecimal.ONE, BigDecimal.TEN, currency), USER_ID);
+    }
+}
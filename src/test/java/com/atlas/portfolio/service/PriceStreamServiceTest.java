@@ -0,0 +1,65 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.entity.enums.AssetType;
+import com.atlas.portfolio.repository.AssetRepository;
+import com.atlas.portfolio.service.external.InMemoryQuoteStreamSource;
+import com.atlas.portfolio.service.external.PriceTick;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PriceStreamServiceTest {
+
+    private final InMemoryQuoteStreamSource quoteStreamSource = new InMemoryQuoteStreamSource();
+    private final PriceBook priceBook = new PriceBook(1_024, "");
+    private final AssetRepository assetRepository = mock(AssetRepository.class);
+    private final AssetPriceWriter assetPriceWriter = mock(AssetPriceWriter.class);
+
+    @BeforeEach
+    void setUp() {
+        when(assetRepository.findDistinctSymbolsByAssetType(AssetType.STOCK)).thenReturn(List.of("AAPL", "MSFT"));
+        new PriceStreamService(quoteStreamSource, priceBook, assetRepository, assetPriceWriter).start();
+    }
+
+    @Test
+    void subscribesToHeldSymbols() {
+        assertThat(quoteStreamSource.getSubscriptions()).containsExactlyInAnyOrder("AAPL", "MSFT");
+    }
+
+    @Test
+    void writesOnlyChangedPricesOfSubscribedSymbols() {
+        Instant now = Instant.now();
+        quoteStreamSource.publish(new PriceTick("AAPL", new BigDecimal("100.10"), now));
+        quoteStreamSource.publish(new PriceTick("AAPL", new BigDecimal("100.10000000"), now.plusMillis(1)));
+        quoteStreamSource.publish(new PriceTick("AAPL", new BigDecimal("100.30"), now.plusMillis(2)));
+        quoteStreamSource.publish(new PriceTick("TSLA", new BigDecimal("250.00"), now));
+
+        verify(assetPriceWriter, times(2)).enqueueStockPrice(eq("AAPL"), any(), any());
+        verify(assetPriceWriter).enqueueStockPrice(eq("AAPL"), eq(new BigDecimal("100.30000000")), any());
+        verify(assetPriceWriter, never()).enqueueStockPrice(eq("TSLA"), any(), any());
+        assertThat(priceBook.getQuote("TSLA")).isEmpty();
+    }
+
+    @Test
+    void ignoresOutOfOrderTicks() {
+        Instant now = Instant.now();
+        quoteStreamSource.publish(new PriceTick("AAPL", new BigDecimal("101.00"), now));
+        quoteStreamSource.publish(new PriceTick("AAPL", new BigDecimal("99.00"), now.minusSeconds(5)));
+
+        assertThat(priceBook.getQuote("AAPL")).map(PriceBook.Quote::price)
+                .contains(new BigDecimal("101.00000000"));
+        verify(assetPriceWriter, never()).enqueueStockPrice(eq("AAPL"), eq(new BigDecimal("99.00000000")), any());
+    }
+}
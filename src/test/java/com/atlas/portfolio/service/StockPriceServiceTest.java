@@ -0,0 +1,174 @@
+package com.atlas.portfolio.service;
+
+import com.atlas.portfolio.service.external.FinnhubApiClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockPriceServiceTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private final FinnhubApiClient finnhubApiClient = mock(FinnhubApiClient.class);
+    private final PriceBook priceBook = new PriceBook(1_024, "");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.now());
+
+    @AfterEach
+    void tearDown() {
+        priceBook.close();
+    }
+
+    @Test
+    void concurrentCallersShareOneInFlightFetch() throws Exception {
+        int callers = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        when(finnhubApiClient.fetchQuote("AAPL")).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return new BigDecimal("190.12");
+        });
+        StockPriceService service = service(100);
+
+        List<Future<PriceQuote>> quotes = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                quotes.add(executor.submit(() -> service.fetchStockQuote("AAPL")));
+            }
+            await().atMost(Duration.ofSeconds(10)).until(() -> count("coalesced") == callers - 1);
+            release.countDown();
+
+            for (Future<PriceQuote> quote : quotes) {
+                assertThat(quote.get(10, TimeUnit.SECONDS).price()).isEqualByComparingTo("190.12");
+            }
+        }
+
+        verify(finnhubApiClient, times(1)).fetchQuote("AAPL");
+        assertThat(count("miss")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(callers - 1);
+        assertThat(count("hit")).isZero();
+
+        service.fetchStockQuote("AAPL");
+        assertThat(count("hit")).isEqualTo(1);
+        verify(finnhubApiClient, times(1)).fetchQuote("AAPL");
+    }
+
+    @Test
+    void cachedQuoteIsRefetchedOnceItsTtlExpires() {
+        when(finnhubApiClient.fetchQuote("AAPL")).thenReturn(new BigDecimal("190"), new BigDecimal("191"));
+        StockPriceService service = service(100);
+
+        assertThat(service.fetchStockQuote("AAPL").price()).isEqualByComparingTo("190");
+        clock.advance(TTL.minusSeconds(1));
+        assertThat(service.fetchStockQuote("AAPL").price()).isEqualByComparingTo("190");
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(service.fetchStockQuote("AAPL").price()).isEqualByComparingTo("191");
+
+        verify(finnhubApiClient, times(2)).fetchQuote("AAPL");
+        assertThat(count("miss")).isEqualTo(2);
+        assertThat(count("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void failedFetchIsNotCachedWithoutALastKnownQuote() {
+        when(finnhubApiClient.fetchQuote("AAPL"))
+                .thenThrow(new IllegalStateException("No quote data available for symbol: AAPL"))
+                .thenReturn(new BigDecimal("190"));
+        StockPriceService service = service(100);
+
+        assertThatThrownBy(() -> service.fetchStockQuote("AAPL"))
+                .hasMessage("Failed to fetch stock price for AAPL")
+                .hasRootCauseMessage("No quote data available for symbol: AAPL");
+        assertThat(service.fetchStockQuote("AAPL").price()).isEqualByComparingTo("190");
+        assertThat(count("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void cacheIsBoundedToItsMaximumSize() {
+        when(finnhubApiClient.fetchQuote(anyString())).thenReturn(BigDecimal.ONE);
+        StockPriceService service = service(2);
+
+        for (String symbol : List.of("AAPL", "MSFT", "NVDA", "AMZN")) {
+            service.fetchStockQuote(symbol);
+        }
+
+        assertThat(meterRegistry.get("quote.cache.size").gauge().value()).isEqualTo(2);
+        service.fetchStockQuote("AMZN");
+        assertThat(count("hit")).isEqualTo(1);
+        assertThat(count("miss")).isEqualTo(4);
+    }
+
+    @Test
+    void freshStreamedQuoteBypassesTheCache() {
+        priceBook.update("AAPL", new BigDecimal("189.5"), clock.now().minusSeconds(10));
+        StockPriceService service = service(100);
+
+        assertThat(service.fetchStockQuote("AAPL").price()).isEqualByComparingTo("189.5");
+        assertThat(count("price-book")).isEqualTo(1);
+        verify(finnhubApiClient, times(0)).fetchQuote(anyString());
+    }
+
+    private StockPriceService service(int maxCachedQuotes) {
+        return new StockPriceService(finnhubApiClient, priceBook, meterRegistry, Duration.ofMinutes(1), TTL,
+                maxCachedQuotes, clock);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("quote.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        private LocalDateTime now() {
+            return LocalDateTime.now(this);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.atlas.portfolio.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ValuationKernelTest {
+
+    private static final int GROUPS = 7;
+    private static final int ROWS = 20_000;
+
+    @Test
+    void totalsMatchBigDecimalArithmeticBitForBit() {
+        Random random = new Random(42);
+        ValuationKernel kernel = new ValuationKernel(ROWS + 1);
+        BigDecimal[] expectedValues = new BigDecimal[GROUPS];
+        BigDecimal[] expectedInvested = new BigDecimal[GROUPS];
+        for (int group = 0; group < GROUPS; group++) {
+            expectedValues[group] = BigDecimal.ZERO;
+            expectedInvested[group] = BigDecimal.ZERO;
+        }
+
+        for (int row = 0; row < ROWS; row++) {
+            int group = random.nextInt(GROUPS - 1);
+            BigDecimal quantity = randomDecimal(random, 10_000_000_000L);
+            BigDecimal price = random.nextInt(10) == 0 ? null : randomDecimal(random, 1_000_000L);
+            BigDecimal averagePrice = randomDecimal(random, 1_000_000L);
+            kernel.add(group, quantity, price, averagePrice);
+            if (price != null) {
+                expectedValues[group] = expectedValues[group].add(price.multiply(quantity));
+            }
+            expectedInvested[group] = expectedInvested[group].add(averagePrice.multiply(quantity));
+        }
+        kernel.add(GROUPS - 1, new BigDecimal("2.50"), null, new BigDecimal("10"));
+        expectedInvested[GROUPS - 1] = new BigDecimal("25.00");
+
+        ValuationKernel.GroupTotals[] totals = kernel.accumulate();
+
+        assertThat(totals).hasSize(GROUPS);
+        for (int group = 0; group < GROUPS; group++) {
+            assertThat(totals[group].totalValue()).isEqualTo(expectedValues[group]);
+            assertThat(totals[group].totalInvested()).isEqualTo(expectedInvested[group]);
+        }
+        assertThat(totals[GROUPS - 1].assetCount()).isEqualTo(1);
+        assertThat(totals[GROUPS - 1].pricedCount()).isZero();
+    }
+
+    @Test
+    void rejectsValuesThatDoNotFitScaledLongs() {
+        ValuationKernel kernel = new ValuationKernel(1);
+
+        assertThatThrownBy(() -> kernel.add(0, new BigDecimal("1.000000001"), null, BigDecimal.ONE))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> kernel.add(0, new BigDecimal("100000000000.5"), null, BigDecimal.ONE))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void rejectsSumsThatOverflow128Bits() {
+        BigDecimal large = new BigDecimal("90000000000.12345678");
+        ValuationKernel kernel = new ValuationKernel(64);
+        for (int row = 0; row < 64; row++) {
+            kernel.add(0, large, large, large);
+        }
+
+        assertThatThrownBy(kernel::accumulate).isInstanceOf(ArithmeticException.class);
+    }
+
+    private static BigDecimal randomDecimal(Random random, long maxUnscaled) {
+        int scale = random.nextInt(ValuationKernel.SCALE + 1);
+        return BigDecimal.valueOf(Math.floorMod(random.nextLong(), maxUnscaled), scale);
+    }
+}
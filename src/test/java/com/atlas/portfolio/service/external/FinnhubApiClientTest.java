@@ -0,0 +1,148 @@
+package com.atlas.portfolio.service.external;
+
+import com.atlas.portfolio.config.AdaptiveConcurrencyLimiter;
+import com.atlas.portfolio.service.PriceBook;
+import com.atlas.portfolio.service.PriceQuote;
+import com.atlas.portfolio.service.StockPriceService;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FinnhubApiClientTest {
+
+    private static final Reply OK = new Reply(200, 0);
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile IntFunction<Reply> script = request -> OK;
+    private HttpServer server;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/quote", exchange -> {
+            Reply reply = script.apply(requests.incrementAndGet());
+            try {
+                Thread.sleep(reply.delayMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = (reply.status() == 200 ? "{\"c\": 101.25}" : "{}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(reply.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void limitBacksOffOnThrottlingAndSlowResponsesAndRecovers() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        FinnhubApiClient client = client(limiter, CircuitBreakerRegistry.ofDefaults(), false);
+
+        script = request -> new Reply(429, 0);
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> client.fetchQuote("AAPL")).isInstanceOf(HttpClientErrorException.class);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(3);
+
+        script = request -> new Reply(200, 300);
+        client.fetchQuote("AAPL");
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        script = request -> OK;
+        for (int i = 0; i < 10; i++) {
+            assertThat(client.fetchQuote("AAPL")).isEqualByComparingTo("101.25");
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void openCircuitFailsFastToTheLastKnownPrice() {
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(3)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        PriceBook priceBook = new PriceBook(1_024, "");
+        StockPriceService stockPriceService = new StockPriceService(client(limiter(), circuitBreakers, false),
+                priceBook, new SimpleMeterRegistry(), Duration.ZERO, Duration.ZERO, 100);
+        priceBook.update("AAPL", new BigDecimal("99"), LocalDateTime.now().minusHours(1));
+
+        PriceQuote fetched = stockPriceService.fetchStockQuote("AAPL");
+        assertThat(fetched.stale()).isFalse();
+        assertThat(fetched.price()).isEqualByComparingTo("101.25");
+
+        script = request -> new Reply(503, 0);
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> stockPriceService.fetchStockQuote("AAPL")).isInstanceOf(RuntimeException.class);
+        }
+
+        assertThat(stockPriceService.fetchStockQuote("AAPL")).isEqualTo(fetched.asStale());
+
+        LocalDateTime streamedAt = LocalDateTime.now();
+        priceBook.update("AAPL", new BigDecimal("102"), streamedAt);
+        PriceQuote streamed = stockPriceService.fetchStockQuote("AAPL");
+        assertThat(streamed.stale()).isTrue();
+        assertThat(streamed.price()).isEqualByComparingTo("102");
+        assertThat(streamed.updatedAt()).isEqualTo(streamedAt);
+        assertThat(requests).hasValue(3);
+    }
+
+    @Test
+    void hedgedRequestAnswersWhenThePrimaryIsSlow() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        FinnhubApiClient client = client(limiter, CircuitBreakerRegistry.ofDefaults(), true);
+        script = request -> request == 1 ? new Reply(200, 2_000) : OK;
+
+        long startedAt = System.nanoTime();
+        assertThat(client.fetchQuote("AAPL")).isEqualByComparingTo("101.25");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofMillis(1_500));
+        assertThat(requests).hasValue(2);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter() {
+        return new AdaptiveConcurrencyLimiter(10, 1, 30, Duration.ofMillis(200), 0.7, Duration.ofSeconds(1));
+    }
+
+    private FinnhubApiClient client(AdaptiveConcurrencyLimiter limiter, CircuitBreakerRegistry circuitBreakers,
+                                    boolean hedging) {
+        return new FinnhubApiClient("http://localhost:" + server.getAddress().getPort(), "test",
+                Duration.ofSeconds(5), hedging, Duration.ofMillis(100), limiter, RateLimiterRegistry.ofDefaults(),
+                RetryRegistry.ofDefaults(), circuitBreakers, new SimpleMeterRegistry());
+    }
+
+    private record Reply(int status, long delayMillis) {
+    }
+}
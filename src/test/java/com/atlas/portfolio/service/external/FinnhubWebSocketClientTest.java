@@ -0,0 +1,24 @@
+package com.atlas.portfolio.service.external;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FinnhubWebSocketClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FinnhubWebSocketClient client =
+            new FinnhubWebSocketClient(objectMapper, "wss://localhost", "key");
+
+    @Test
+    void subscriptionMessagesAreSerializedAsJson() throws Exception {
+        assertThat(client.subscriptionMessage("subscribe", "AAPL"))
+                .isEqualTo("{\"type\":\"subscribe\",\"symbol\":\"AAPL\"}");
+
+        JsonNode escaped = objectMapper.readTree(client.subscriptionMessage("unsubscribe", "BRK\"B\\A"));
+        assertThat(escaped.path("type").asText()).isEqualTo("unsubscribe");
+        assertThat(escaped.path("symbol").asText()).isEqualTo("BRK\"B\\A");
+    }
+}
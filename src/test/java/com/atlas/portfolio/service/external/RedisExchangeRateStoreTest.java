@@ -0,0 +1,153 @@
+package com.atlas.portfolio.service.external;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedisExchangeRateStoreTest {
+
+    private static final String SNAPSHOT_KEY = "exchange-rates:USD";
+    private static final String REFRESH_LOCK_KEY = "exchange-rates:USD:refresh-lock";
+
+    private static RedisServer redisServer;
+    private static int port;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final List<LettuceConnectionFactory> connectionFactories = new ArrayList<>();
+    private final List<RedisExchangeRateStore> stores = new ArrayList<>();
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = redisTemplate(port);
+        redisTemplate.delete(List.of(SNAPSHOT_KEY, REFRESH_LOCK_KEY));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (RedisExchangeRateStore store : stores) {
+            store.close();
+        }
+        connectionFactories.forEach(LettuceConnectionFactory::destroy);
+    }
+
+    @Test
+    void savedSnapshotIsLoadedBack() {
+        RedisExchangeRateStore store = store(port);
+        assertThat(store.load()).isEmpty();
+
+        ExchangeRateSnapshot snapshot = new ExchangeRateSnapshot(
+                Map.of("EUR", new BigDecimal("0.92"), "JPY", new BigDecimal("151.37")),
+                Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        store.save(snapshot);
+
+        assertThat(store(port).load()).contains(snapshot);
+    }
+
+    @Test
+    void unreadableSnapshotIsTreatedAsMissing() {
+        redisTemplate.opsForValue().set(SNAPSHOT_KEY, "{not json");
+
+        assertThat(store(port).load()).isEmpty();
+    }
+
+    @Test
+    void refreshLeaseIsExclusiveAndOnlyReleasedByItsOwner() {
+        RedisExchangeRateStore first = store(port);
+        RedisExchangeRateStore second = store(port);
+
+        assertThat(first.tryLockRefresh("node-a", Duration.ofMinutes(1))).isTrue();
+        assertThat(second.tryLockRefresh("node-b", Duration.ofMinutes(1))).isFalse();
+        assertThat(redisTemplate.getExpire(REFRESH_LOCK_KEY, TimeUnit.SECONDS)).isBetween(1L, 60L);
+
+        second.unlockRefresh("node-b");
+        assertThat(second.tryLockRefresh("node-b", Duration.ofMinutes(1))).isFalse();
+
+        first.unlockRefresh("node-a");
+        assertThat(second.tryLockRefresh("node-b", Duration.ofMinutes(1))).isTrue();
+        assertThat(redisTemplate.opsForValue().get(REFRESH_LOCK_KEY)).isEqualTo("node-b");
+    }
+
+    @Test
+    void invalidationsReachEverySubscribedNode() throws InterruptedException {
+        BlockingQueue<String> first = new LinkedBlockingQueue<>();
+        BlockingQueue<String> second = new LinkedBlockingQueue<>();
+        store(port).subscribeInvalidations(first::add);
+        store(port).subscribeInvalidations(second::add);
+
+        store(port).publishInvalidation("node-a");
+
+        assertThat(first.poll(5, TimeUnit.SECONDS)).isEqualTo("node-a");
+        assertThat(second.poll(5, TimeUnit.SECONDS)).isEqualTo("node-a");
+    }
+
+    @Test
+    void unreachableRedisDegradesToLocalBehaviour() throws IOException {
+        RedisExchangeRateStore store = store(freePort());
+
+        store.save(new ExchangeRateSnapshot(Map.of("EUR", new BigDecimal("0.92")), Instant.now()));
+        store.publishInvalidation("node-a");
+        store.unlockRefresh("node-a");
+
+        assertThat(store.load()).isEmpty();
+        assertThat(store.tryLockRefresh("node-a", Duration.ofMinutes(1))).isTrue();
+    }
+
+    private RedisExchangeRateStore store(int redisPort) {
+        StringRedisTemplate template = redisTemplate(redisPort);
+        RedisExchangeRateStore store = new RedisExchangeRateStore(
+                template, template.getRequiredConnectionFactory(), objectMapper);
+        stores.add(store);
+        return store;
+    }
+
+    private StringRedisTemplate redisTemplate(int redisPort) {
+        LettuceConnectionFactory connectionFactory =
+                new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", redisPort));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        connectionFactories.add(connectionFactory);
+        return new StringRedisTemplate(connectionFactory);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
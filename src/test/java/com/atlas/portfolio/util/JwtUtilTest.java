@@ -0,0 +1,90 @@
+package com.atlas.portfolio.util;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-with-at-least-32-characters";
+
+    private final MutableClock clock = new MutableClock(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 2, clock);
+
+    @Test
+    void verifiesTokenAndServesRepeatedCallsFromCache() {
+        String token = token(SECRET, 42L, 60_000);
+
+        assertThat(jwtUtil.verify(token)).get().extracting(JwtUtil.VerifiedToken::userId).isEqualTo(42L);
+        assertThat(jwtUtil.verify(token)).get().extracting(JwtUtil.VerifiedToken::userId).isEqualTo(42L);
+        assertThat(jwtUtil.extractUserId(token)).isEqualTo(42L);
+    }
+
+    @Test
+    void rejectsTokensSignedWithAnotherKeyOrAlreadyExpired() {
+        assertThat(jwtUtil.verify(token("another-secret-key-with-at-least-32-chars", 42L, 60_000))).isEmpty();
+        assertThat(jwtUtil.verify(token(SECRET, 42L, -1_000))).isEmpty();
+        assertThat(jwtUtil.validateToken("not-a-jwt")).isFalse();
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceExpired() {
+        String token = token(SECRET, 7L, 5_000);
+        assertThat(jwtUtil.verify(token)).isPresent();
+
+        clock.advance(Duration.ofSeconds(4));
+        assertThat(jwtUtil.verify(token)).isPresent();
+
+        clock.advance(Duration.ofSeconds(2));
+        assertThat(jwtUtil.verify(token)).isEmpty();
+        assertThat(jwtUtil.verify(token)).isEmpty();
+    }
+
+    private String token(String secret, Long userId, long expiresInMillis) {
+        return Jwts.builder()
+                .subject("user" + userId)
+                .claim("userId", userId)
+                .expiration(new Date(clock.millis() + expiresInMillis))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}